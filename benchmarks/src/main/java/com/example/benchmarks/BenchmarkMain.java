@@ -0,0 +1,41 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Runs every benchmark once per thread count with the GC (allocation)
+ * profiler, writing one JSON result file per thread count so releases can be
+ * compared. Usage: java -jar benchmarks.jar [include-regex] [thread counts...]
+ * Defaults to all benchmarks with 1 thread and one thread per core.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com\\.example\\..*Benchmark";
+        int[] threadCounts;
+        if (args.length > 1) {
+            threadCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threadCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        } else {
+            threadCounts = new int[] { 1, Runtime.getRuntime().availableProcessors() };
+        }
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-results-" + threads + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
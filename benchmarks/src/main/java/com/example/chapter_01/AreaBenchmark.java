@@ -0,0 +1,86 @@
+package com.example.chapter_01;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Sums the area of a mixed set of circles and rectangles, one shape object at a time and as a ShapeBatch
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AreaBenchmark {
+
+    @Param({ "1000", "1000000" })
+    public int shapes;
+
+    private Shape[] mutableShapes;
+    private Shape[] immutableShapes;
+    private ShapeBatch batch;
+    private double[] areas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        mutableShapes = new Shape[shapes];
+        immutableShapes = new Shape[shapes];
+        batch = new ShapeBatch();
+        for (int i = 0; i < shapes; i++) {
+            double a = random.nextDouble() * 10;
+            double b = random.nextDouble() * 10;
+            if (random.nextBoolean()) {
+                mutableShapes[i] = new Circle(a);
+                immutableShapes[i] = new ImmutableCircle(a);
+                batch.addCircle(a);
+            } else {
+                mutableShapes[i] = new Rectangle(a, b);
+                immutableShapes[i] = new ImmutableRectangle(a, b);
+                batch.addRectangle(a, b);
+            }
+        }
+        areas = new double[shapes];
+    }
+
+    @Benchmark
+    public double getArea() {
+        double total = 0;
+        for (Shape shape : mutableShapes) {
+            total += shape.getArea();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double cachedGetArea() {
+        double total = 0;
+        for (Shape shape : immutableShapes) {
+            total += shape.getArea();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double[] batchComputeAreas() {
+        batch.computeAreas(areas);
+        return areas;
+    }
+
+    @Benchmark
+    public double batchTotalArea() {
+        return batch.totalArea();
+    }
+}
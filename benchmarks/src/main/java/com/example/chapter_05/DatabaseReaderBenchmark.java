@@ -0,0 +1,103 @@
+package com.example.chapter_05;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseReaderBenchmark {
+
+    // One record file per trial, shared by all threads
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        @Param({ "1000", "1000000" })
+        public int records;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("records", ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < records; i++) {
+                    writer.write("Record");
+                    writer.write(Integer.toString(i));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // The reader keeps a cursor position, so every thread gets its own
+    @State(Scope.Thread)
+    public static class Reader {
+
+        DatabaseReader reader;
+        String[] batch = new String[256];
+        int position;
+
+        @Setup(Level.Trial)
+        public void setUp(Store store) {
+            reader = new DatabaseReader();
+            reader.open(store.file.toString());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public String getRecord(Reader state) {
+        return state.reader.getRecord(ThreadLocalRandom.current().nextInt(state.reader.howManyRecords()));
+    }
+
+    @Benchmark
+    public String getNextRecord(Reader state) {
+        DatabaseReader reader = state.reader;
+        if (state.position == reader.howManyRecords()) {
+            reader.goToFirst();
+            state.position = 0;
+        }
+        state.position++;
+        return reader.getNextRecord();
+    }
+
+    @Benchmark
+    public int nextRecords(Reader state) {
+        int count = state.reader.nextRecords(state.batch);
+        if (count == 0) {
+            state.reader.goToFirst();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.chapter_05;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    @Param({ "16", "256" })
+    public int messageLength;
+
+    private String message;
+    private Logger logger;
+    private AsyncLogger asyncLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        message = "x".repeat(messageLength);
+        logger = new Logger(Writer.nullWriter());
+        asyncLogger = new AsyncLogger(Writer.nullWriter());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        asyncLogger.close();
+    }
+
+    @Benchmark
+    public void log() throws IOException {
+        logger.log(message);
+    }
+
+    @Benchmark
+    public void asyncLog() throws IOException {
+        asyncLogger.log(message);
+    }
+}
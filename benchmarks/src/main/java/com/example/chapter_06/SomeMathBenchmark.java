@@ -0,0 +1,71 @@
+package com.example.chapter_06;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SomeMathBenchmark {
+
+    // fib returns an int, which overflows past fib(46)
+    @State(Scope.Benchmark)
+    public static class IntInput {
+
+        @Param({ "10", "46" })
+        public int n;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongInput {
+
+        @Param({ "10", "46", "90" })
+        public int n;
+    }
+
+    // Inputs past the long range; fastDoubling bypasses the memo to measure the computation itself
+    @State(Scope.Benchmark)
+    public static class BigInput {
+
+        @Param({ "1000", "100000" })
+        public int bigN;
+    }
+
+    @Benchmark
+    public int fib(IntInput input) {
+        return SomeMath.fib(input.n);
+    }
+
+    @Benchmark
+    public long fibLong(LongInput input) {
+        return SomeMath.fibLong(input.n);
+    }
+
+    @Benchmark
+    public long fibIterative(LongInput input) {
+        return SomeMath.fibIterative(input.n);
+    }
+
+    @Benchmark
+    public BigInteger fibBigMemoized(BigInput input) {
+        return SomeMath.fibBig(input.bigN);
+    }
+
+    @Benchmark
+    public BigInteger fastDoubling(BigInput input) {
+        return SomeMath.fastDoubling(input.bigN);
+    }
+}
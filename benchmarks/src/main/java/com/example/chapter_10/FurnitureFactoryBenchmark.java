@@ -0,0 +1,70 @@
+package com.example.chapter_10;
+
+import com.example.chapter_10.abstract_factory.FurnitureFactory;
+import com.example.chapter_10.abstract_factory.factory.ArtDecoFurnitureFactory;
+import com.example.chapter_10.abstract_factory.factory.CachingFurnitureFactory;
+import com.example.chapter_10.abstract_factory.factory.ModernFurnitureFactory;
+import com.example.chapter_10.abstract_factory.factory.VictorianFurnitureFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FurnitureFactoryBenchmark {
+
+    @Param({ "ArtDeco", "Modern", "Victorian" })
+    public String style;
+
+    // Pieces of each kind created per invocation
+    @Param({ "1", "1000" })
+    public int pieces;
+
+    private FurnitureFactory factory;
+    private FurnitureFactory cachingFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (style) {
+            case "ArtDeco" -> factory = new ArtDecoFurnitureFactory();
+            case "Modern" -> factory = new ModernFurnitureFactory();
+            case "Victorian" -> factory = new VictorianFurnitureFactory();
+            default -> throw new IllegalArgumentException("Unknown style " + style);
+        }
+        cachingFactory = new CachingFurnitureFactory(factory);
+    }
+
+    @Benchmark
+    public void create(Blackhole blackhole) {
+        createAll(factory, blackhole);
+    }
+
+    @Benchmark
+    public void createCached(Blackhole blackhole) {
+        createAll(cachingFactory, blackhole);
+    }
+
+    private void createAll(FurnitureFactory source, Blackhole blackhole) {
+        for (int i = 0; i < pieces; i++) {
+            blackhole.consume(source.createChair());
+            blackhole.consume(source.createSofa());
+            blackhole.consume(source.createCofeeTable());
+        }
+    }
+}
@@ -10,8 +10,7 @@ public class Circle extends Shape {
 
     @Override
     public double getArea() {
-        area = 3.14 * (radius * radius);
-        return (area);
+        return Math.PI * (radius * radius);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.example.chapter_01;
+
+public final class ImmutableCircle extends ImmutableShape {
+
+    private final double radius;
+
+    public ImmutableCircle(double radius) {
+        this.radius = radius;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public ImmutableCircle withRadius(double radius) {
+        return new ImmutableCircle(radius);
+    }
+
+    @Override
+    protected double computeArea() {
+        return Math.PI * (radius * radius);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.chapter_01;
+
+public final class ImmutableRectangle extends ImmutableShape {
+
+    private final double length;
+    private final double width;
+
+    public ImmutableRectangle(double length, double width) {
+        this.length = length;
+        this.width = width;
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public ImmutableRectangle withLength(double length) {
+        return new ImmutableRectangle(length, width);
+    }
+
+    public ImmutableRectangle withWidth(double width) {
+        return new ImmutableRectangle(length, width);
+    }
+
+    @Override
+    protected double computeArea() {
+        return length * width;
+    }
+
+}
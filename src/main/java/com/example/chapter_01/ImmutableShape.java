@@ -0,0 +1,25 @@
+package com.example.chapter_01;
+
+/*
+ * Base for shapes whose dimensions never change. The area is computed on the
+ * first call and cached; concurrent first calls may both compute it, but they
+ * write the same value, so no locking is needed.
+ */
+public abstract class ImmutableShape extends Shape {
+
+    // NaN marks "not computed yet"
+    private volatile double cachedArea = Double.NaN;
+
+    @Override
+    public final double getArea() {
+        double result = cachedArea;
+        if (Double.isNaN(result)) {
+            result = computeArea();
+            cachedArea = result;
+        }
+        return result;
+    }
+
+    protected abstract double computeArea();
+
+}
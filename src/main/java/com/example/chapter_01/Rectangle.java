@@ -12,8 +12,7 @@ class Rectangle extends Shape {
 
     @Override
     public double getArea() {
-        area = length * width;
-        return (area);
+        return length * width;
     }
 
 }
@@ -2,8 +2,6 @@ package com.example.chapter_01;
 
 public abstract class Shape {
 
-    double area;
-
     public abstract double getArea();
 
 }
@@ -0,0 +1,100 @@
+package com.example.chapter_01;
+
+import java.util.Arrays;
+
+/*
+ * Circles and rectangles stored column by column in primitive arrays.
+ * Areas are computed in flat counted loops with no virtual calls, which C2
+ * can turn into SIMD code on its own. C2 does not vectorize a double sum,
+ * because that would change the order of the additions, so totalArea()
+ * keeps four independent partial sums that the CPU can add in parallel.
+ */
+public class ShapeBatch {
+
+    private double[] radii = new double[16];
+    private int circleCount;
+
+    private double[] lengths = new double[16];
+    private double[] widths = new double[16];
+    private int rectangleCount;
+
+    public void addCircle(double radius) {
+        if (circleCount == radii.length) {
+            radii = Arrays.copyOf(radii, radii.length * 2);
+        }
+        radii[circleCount++] = radius;
+    }
+
+    public void addRectangle(double length, double width) {
+        if (rectangleCount == lengths.length) {
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            widths = Arrays.copyOf(widths, widths.length * 2);
+        }
+        lengths[rectangleCount] = length;
+        widths[rectangleCount] = width;
+        rectangleCount++;
+    }
+
+    public int getCircleCount() {
+        return circleCount;
+    }
+
+    public int getRectangleCount() {
+        return rectangleCount;
+    }
+
+    public int size() {
+        return circleCount + rectangleCount;
+    }
+
+    // Circle areas in insertion order, then rectangle areas in insertion order
+    public double[] computeAreas() {
+        double[] areas = new double[size()];
+        computeAreas(areas);
+        return areas;
+    }
+
+    public void computeAreas(double[] areas) {
+        if (areas.length < size()) {
+            throw new IllegalArgumentException("areas needs room for " + size() + " values");
+        }
+        double[] r = radii;
+        for (int i = 0; i < circleCount; i++) {
+            areas[i] = Math.PI * r[i] * r[i];
+        }
+        double[] l = lengths;
+        double[] w = widths;
+        int offset = circleCount;
+        for (int i = 0; i < rectangleCount; i++) {
+            areas[offset + i] = l[i] * w[i];
+        }
+    }
+
+    public double totalArea() {
+        return Math.PI * sumOfProducts(radii, radii, circleCount) + sumOfProducts(lengths, widths, rectangleCount);
+    }
+
+    // a[i] * b[i] summed over the first count elements, in four interleaved partial sums
+    private static double sumOfProducts(double[] a, double[] b, int count) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i <= count - 4; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < count; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    public void clear() {
+        circleCount = 0;
+        rectangleCount = 0;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.chapter_03;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A counter that many threads can bump at once. STRIPED spreads updates over
+ * a LongAdder's cells, so threads rarely touch the same cache line; PRECISE
+ * keeps a single AtomicLong whose every read is the exact count so far.
+ * With a batch size above one, each thread first adds into a batch of its
+ * own and moves it into the shared count when the batch fills up or when the
+ * thread calls flush(). A shared background thread also takes every batch
+ * older than the flush interval, so counts left behind by a thread that went
+ * idle reach the shared count within about two intervals.
+ *
+ * approximateSum() reads only the shared count, so it can lag by up to a
+ * batch per thread. sum() also adds the batches still held by threads.
+ */
+public class ConcurrentCounter {
+
+    public enum Mode { STRIPED, PRECISE }
+
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    private static final VarHandle PENDING;
+
+    // Runs the periodic flush of every batching counter
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "counter-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        try {
+            PENDING = MethodHandles.lookup().findVarHandle(Batch.class, "pending", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Mode mode;
+    private final LongAdder striped;
+    private final AtomicLong precise;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final ThreadLocal<Batch> batch;
+    private final ConcurrentLinkedQueue<Batch> batches;
+
+    public ConcurrentCounter(Mode mode) {
+        this(mode, 1, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public ConcurrentCounter(Mode mode, int batchSize, long flushIntervalMillis) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (batchSize > 1 && flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("flushIntervalMillis must be positive: " + flushIntervalMillis);
+        }
+        this.mode = mode;
+        this.striped = mode == Mode.STRIPED ? new LongAdder() : null;
+        this.precise = mode == Mode.PRECISE ? new AtomicLong() : null;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        if (batchSize > 1) {
+            this.batches = new ConcurrentLinkedQueue<>();
+            this.batch = ThreadLocal.withInitial(() -> {
+                // Reaped here too, so a thread-per-task workload cannot pile up batches between sum() calls
+                reapDeadBatches();
+                Batch created = new Batch(Thread.currentThread());
+                batches.add(created);
+                return created;
+            });
+            FlushTask.schedule(this, flushIntervalMillis);
+        } else {
+            this.batches = null;
+            this.batch = null;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        if (batch == null) {
+            addShared(delta);
+            return;
+        }
+        Batch own = batch.get();
+        // Atomic, but on a line only this thread writes between flushes, so it is not contended
+        long pending = (long) PENDING.getAndAdd(own, delta) + delta;
+        if (Math.abs(pending) >= batchSize) {
+            flush(own);
+        }
+    }
+
+    // Moves the calling thread's batch into the shared count right away
+    public void flush() {
+        if (batch != null) {
+            flush(batch.get());
+        }
+    }
+
+    // The shared count only: one read in PRECISE mode, a walk over the cells in STRIPED mode
+    public long approximateSum() {
+        return mode == Mode.PRECISE ? precise.get() : striped.sum();
+    }
+
+    /*
+     * The shared count plus every thread's unflushed batch. The shared count
+     * is read first: a batch flushed after that read may then be missed, so
+     * successive calls can go down while threads are flushing, but no batch
+     * is ever counted twice.
+     */
+    public long sum() {
+        if (batches == null) {
+            return approximateSum();
+        }
+        long shared = approximateSum();
+        long held = 0;
+        for (Batch other : batches) {
+            Thread owner = other.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                held += fold(other);
+            } else {
+                held += (long) PENDING.getOpaque(other);
+            }
+        }
+        return shared + held;
+    }
+
+    private void reapDeadBatches() {
+        for (Batch other : batches) {
+            Thread owner = other.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                fold(other);
+            }
+        }
+    }
+
+    // Called by the flusher: takes batches that have not been flushed for a whole interval
+    private void flushIdleBatches() {
+        long now = System.nanoTime();
+        for (Batch other : batches) {
+            Thread owner = other.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                fold(other);
+            } else if (now - other.lastFlush >= flushIntervalNanos) {
+                flush(other);
+            }
+        }
+    }
+
+    // Moves a dead thread's batch into the shared count; returns what it held, or 0 if another caller got there first
+    private long fold(Batch dead) {
+        // The thread is gone, so nothing else writes its batch; whoever unlinks it folds it in
+        if (!batches.remove(dead)) {
+            return 0;
+        }
+        long pending = (long) PENDING.getAndSet(dead, 0L);
+        addShared(pending);
+        return pending;
+    }
+
+    // Safe from any thread: the batch is emptied atomically, so racing owners and flushers never move a count twice
+    private void flush(Batch target) {
+        // Cleared before the shared add, so a sum() whose first read sees the add also sees the batch empty
+        long pending = (long) PENDING.getAndSet(target, 0L);
+        target.lastFlush = System.nanoTime();
+        if (pending != 0) {
+            addShared(pending);
+        }
+    }
+
+    private void addShared(long delta) {
+        if (mode == Mode.PRECISE) {
+            precise.addAndGet(delta);
+        } else {
+            striped.add(delta);
+        }
+    }
+
+    // One thread's unflushed updates; the owner adds to pending, anyone may take it
+    private static final class Batch {
+
+        final WeakReference<Thread> owner;
+        long pending;
+        volatile long lastFlush = System.nanoTime();
+
+        Batch(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+    }
+
+    // Holds its counter weakly, and stops once the counter has been collected
+    private static final class FlushTask implements Runnable {
+
+        private final WeakReference<ConcurrentCounter> counter;
+        private volatile ScheduledFuture<?> future;
+
+        private FlushTask(ConcurrentCounter counter) {
+            this.counter = new WeakReference<>(counter);
+        }
+
+        static void schedule(ConcurrentCounter counter, long intervalMillis) {
+            FlushTask task = new FlushTask(counter);
+            task.future = FLUSHER.scheduleAtFixedRate(task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            ConcurrentCounter current = counter.get();
+            if (current != null) {
+                current.flushIdleBatches();
+            } else if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
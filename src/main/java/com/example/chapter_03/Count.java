@@ -1,14 +1,32 @@
 package com.example.chapter_03;
 
 public class Count {
-    int count;
+    // Safe to update from any number of threads
+    private final ConcurrentCounter count;
 
     public Count() {
-        count = 0;
+        this(0);
     }
 
     public Count(int number) {
-        count = number;
+        this(number, ConcurrentCounter.Mode.PRECISE);
+    }
+
+    public Count(long number, ConcurrentCounter.Mode mode) {
+        count = new ConcurrentCounter(mode);
+        count.add(number);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long delta) {
+        count.add(delta);
+    }
+
+    public long get() {
+        return count.sum();
     }
 
 }
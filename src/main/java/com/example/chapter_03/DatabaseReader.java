@@ -1,5 +1,7 @@
 package com.example.chapter_03;
 
+import java.util.function.Consumer;
+
 public class DatabaseReader {
 
     String dbName;
@@ -16,4 +18,21 @@ public class DatabaseReader {
         startPosition = pos;
     }
 
+    public String getDbName() {
+        return dbName;
+    }
+
+    public int getStartPosition() {
+        return startPosition;
+    }
+
+    // Passes up to count records of an open store to the visitor, in order from the start position; returns how many
+    public int read(com.example.chapter_05.DatabaseReader store, int count, Consumer<String> visitor) {
+        int end = (int) Math.min((long) startPosition + count, store.howManyRecords());
+        for (int key = startPosition; key < end; key++) {
+            visitor.accept(store.getRecord(key));
+        }
+        return Math.max(0, end - startPosition);
+    }
+
 }
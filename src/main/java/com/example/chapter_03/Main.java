@@ -5,5 +5,6 @@ public class Main {
         Number number1 = new Number();
         Number number2 = new Number();
         Number number3 = new Number();
+        System.out.println("Numbers created: " + Number.getCreatedCount());
     }
 }
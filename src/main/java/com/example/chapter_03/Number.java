@@ -4,6 +4,19 @@ public class Number {
 
     static int count;
 
+    // Numbers are created from many threads, so creations are batched per thread
+    private static final ConcurrentCounter CREATED = new ConcurrentCounter(ConcurrentCounter.Mode.STRIPED, 64,
+            ConcurrentCounter.DEFAULT_FLUSH_INTERVAL_MILLIS);
+
+    public Number() {
+        CREATED.increment();
+    }
+
+    // Includes creations still batched in other threads
+    public static long getCreatedCount() {
+        return CREATED.sum();
+    }
+
     public void method1() {
         int count;
         this.count = 1;
@@ -0,0 +1,154 @@
+package com.example.chapter_03;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+ * Full scans of a record store spread over a work-stealing pool. The store is
+ * opened and indexed once, then cut into contiguous ranges of rangeSize
+ * records. Each range is read by its own DatabaseReader positioned at the
+ * range's first record. Ranges are handed out by splitting the list of ranges
+ * in halves, so idle workers steal the larger untouched halves first.
+ * map() returns results in store order, so it holds every range until the
+ * scan is over. mapUnordered() hands each range's results to the caller as
+ * soon as that range finishes, and keeps nothing itself.
+ */
+public class ParallelScan implements AutoCloseable {
+
+    static final int DEFAULT_RANGE_SIZE = 16 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int rangeSize;
+
+    public ParallelScan() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_RANGE_SIZE);
+    }
+
+    public ParallelScan(int parallelism, int rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("rangeSize must be positive: " + rangeSize);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.rangeSize = rangeSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    // The mapper's result for every record, in store order; null results are dropped, so the mapper can also filter
+    public <R> List<R> map(String dbName, Function<String, R> mapper) {
+        List<R> results = new ArrayList<>();
+        AtomicReferenceArray<List<R>> byRange = scan(dbName, mapper, null);
+        for (int i = 0; i < byRange.length(); i++) {
+            results.addAll(byRange.get(i));
+        }
+        return results;
+    }
+
+    // Passes each range's non-null results to the sink as soon as the range is done; sink calls never overlap
+    public <R> void mapUnordered(String dbName, Function<String, R> mapper, Consumer<List<R>> sink) {
+        Object sinkLock = new Object();
+        scan(dbName, mapper, results -> {
+            synchronized (sinkLock) {
+                sink.accept(results);
+            }
+        });
+    }
+
+    // Runs the action on every record from several threads at once, in no particular order
+    public void forEach(String dbName, Consumer<String> action) {
+        scan(dbName, record -> {
+            action.accept(record);
+            return null;
+        }, results -> { });
+    }
+
+    public long count(String dbName, Predicate<String> filter) {
+        LongAdder matches = new LongAdder();
+        forEach(dbName, record -> {
+            if (filter.test(record)) {
+                matches.increment();
+            }
+        });
+        return matches.sum();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Scans every range; each range's results go to the sink as it completes, or are kept by range when there is none
+    private <R> AtomicReferenceArray<List<R>> scan(String dbName, Function<String, R> mapper, Consumer<List<R>> sink) {
+        com.example.chapter_05.DatabaseReader store = new com.example.chapter_05.DatabaseReader();
+        store.open(dbName);
+        try {
+            int ranges = (int) ((store.howManyRecords() + (long) rangeSize - 1) / rangeSize);
+            AtomicReferenceArray<List<R>> byRange = sink == null ? new AtomicReferenceArray<>(ranges) : null;
+            pool.invoke(new RangeTask<>(store, dbName, mapper, byRange, sink, 0, ranges));
+            return byRange;
+        } finally {
+            store.close();
+        }
+    }
+
+    private class RangeTask<R> extends RecursiveAction {
+
+        private final com.example.chapter_05.DatabaseReader store;
+        private final String dbName;
+        private final Function<String, R> mapper;
+        private final AtomicReferenceArray<List<R>> byRange;
+        private final Consumer<List<R>> sink;
+        private final int from;
+        private final int to;
+
+        RangeTask(com.example.chapter_05.DatabaseReader store, String dbName, Function<String, R> mapper,
+                AtomicReferenceArray<List<R>> byRange, Consumer<List<R>> sink, int from, int to) {
+            this.store = store;
+            this.dbName = dbName;
+            this.mapper = mapper;
+            this.byRange = byRange;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask<>(store, dbName, mapper, byRange, sink, from, middle),
+                        new RangeTask<>(store, dbName, mapper, byRange, sink, middle, to));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            List<R> results = new ArrayList<>();
+            DatabaseReader reader = new DatabaseReader(dbName, from * rangeSize);
+            reader.read(store, rangeSize, record -> {
+                R result = mapper.apply(record);
+                if (result != null) {
+                    results.add(result);
+                }
+            });
+            if (sink != null) {
+                sink.accept(results);
+            } else {
+                byRange.set(from, results);
+            }
+        }
+    }
+}
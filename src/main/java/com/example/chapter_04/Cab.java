@@ -1,9 +1,55 @@
 package com.example.chapter_04;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class Cab {
 
+    private final String serialNumber;
+
+    // Last known position; kept up to date by the CabDispatcher the cab is registered with
+    private volatile double x;
+    private volatile double y;
+
+    private final AtomicBoolean free = new AtomicBoolean(true);
+
     Cab(String serailNumber) {
+        this(serailNumber, 0, 0);
+    }
+
+    Cab(String serialNumber, double x, double y) {
+        this.serialNumber = serialNumber;
+        this.x = x;
+        this.y = y;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public boolean isFree() {
+        return free.get();
+    }
+
+    void moveTo(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // Atomically takes the cab; only one caller can win while it is free
+    boolean tryAssign() {
+        return free.compareAndSet(true, false);
+    }
 
+    void release() {
+        free.set(true);
     }
 
 }
@@ -0,0 +1,188 @@
+package com.example.chapter_04;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Assigns the nearest free cab to ride requests. Free cabs are indexed in a
+ * sparse grid of square cells, so a lookup only scans the rings of cells
+ * around the pickup point. Cabs are claimed with a compare-and-set, which lets
+ * batches of requests be matched on several worker threads at once: when two
+ * workers pick the same cab, the loser simply searches again. Moving,
+ * indexing and claiming a cab all hold that cab's monitor, so a cab is in
+ * the index exactly when it is free, and only under its current cell.
+ */
+public class CabDispatcher implements AutoCloseable {
+
+    static final int DEFAULT_MAX_RINGS = 64;
+
+    private final double cellSize;
+    private final int maxRings;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final ConcurrentHashMap<Long, Set<Cab>> freeCabsByCell = new ConcurrentHashMap<>();
+    private final AtomicInteger freeCabs = new AtomicInteger();
+
+    public CabDispatcher(double cellSize, int workerCount) {
+        this(cellSize, workerCount, DEFAULT_MAX_RINGS);
+    }
+
+    // maxRings bounds how many rings of cells around a pickup are searched before giving up
+    public CabDispatcher(double cellSize, int workerCount, int maxRings) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.maxRings = maxRings;
+        this.workerCount = workerCount;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "cab-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void addCab(Cab cab) {
+        synchronized (cab) {
+            if (cab.isFree()) {
+                index(cab);
+            }
+        }
+    }
+
+    public void moveCab(Cab cab, double x, double y) {
+        synchronized (cab) {
+            boolean indexed = cab.isFree() && unindex(cab);
+            cab.moveTo(x, y);
+            if (indexed) {
+                index(cab);
+            }
+        }
+    }
+
+    // The ride is over: the cab is free again at its drop-off point; releasing a free cab just moves it
+    public void release(Cab cab, double x, double y) {
+        synchronized (cab) {
+            unindex(cab);
+            cab.moveTo(x, y);
+            cab.release();
+            index(cab);
+        }
+    }
+
+    public int freeCabCount() {
+        return freeCabs.get();
+    }
+
+    // Claims and returns the free cab nearest to the pickup point, or null if none is in range
+    public Cab dispatch(double x, double y) {
+        while (freeCabs.get() > 0) {
+            Cab nearest = findNearest(x, y);
+            if (nearest == null) {
+                return null;
+            }
+            synchronized (nearest) {
+                if (nearest.tryAssign()) {
+                    unindex(nearest);
+                    return nearest;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Matches every request, splitting the batch across the worker pool; result[i] belongs to request i
+    public Cab[] dispatchAll(double[] xs, double[] ys) {
+        Cab[] assigned = new Cab[xs.length];
+        int chunk = (xs.length + workerCount - 1) / workerCount;
+        List<Future<?>> pending = new ArrayList<>();
+        for (int start = 0; start < xs.length; start += chunk) {
+            int from = start;
+            int to = Math.min(xs.length, start + chunk);
+            pending.add(workers.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    assigned[i] = dispatch(xs[i], ys[i]);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dispatch failed", e.getCause());
+        }
+        return assigned;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    private Cab findNearest(double x, double y) {
+        int cx = cell(x);
+        int cy = cell(y);
+        Cab best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        for (int ring = 0; ring <= maxRings; ring++) {
+            // Anything in this ring is at least ring - 1 whole cells away from the pickup
+            if (best != null && bestDistance <= (ring - 1) * cellSize) {
+                break;
+            }
+            for (int dy = -ring; dy <= ring; dy++) {
+                boolean edgeRow = dy == -ring || dy == ring;
+                for (int dx = -ring; dx <= ring; dx += edgeRow ? 1 : 2 * ring) {
+                    Set<Cab> cabs = freeCabsByCell.get(key(cx + dx, cy + dy));
+                    if (cabs != null) {
+                        for (Cab cab : cabs) {
+                            double distance = Math.hypot(cab.getX() - x, cab.getY() - y);
+                            if (distance < bestDistance && cab.isFree()) {
+                                bestDistance = distance;
+                                best = cab;
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void index(Cab cab) {
+        if (freeCabsByCell.computeIfAbsent(key(cell(cab.getX()), cell(cab.getY())), k -> ConcurrentHashMap.newKeySet()).add(cab)) {
+            freeCabs.incrementAndGet();
+        }
+    }
+
+    private boolean unindex(Cab cab) {
+        Set<Cab> cabs = freeCabsByCell.get(key(cell(cab.getX()), cell(cab.getY())));
+        if (cabs != null && cabs.remove(cab)) {
+            freeCabs.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
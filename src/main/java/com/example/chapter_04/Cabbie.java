@@ -1,5 +1,7 @@
 package com.example.chapter_04;
 
+import java.util.List;
+
 /*
  * This class defines a cabbie and assigns a cab
  */
@@ -14,6 +16,10 @@ public class Cabbie {
     // Car assigned to cabbie/taxi driver
     private Cab myCab;
 
+    // Road network the cabbie navigates and the junction the cabbie is at
+    private RoutePlanner routePlanner;
+    private int location;
+
     // ! Constructors - multiple constructors
     // Default constructor for the cabbie
     public Cabbie() {
@@ -38,15 +44,46 @@ public class Cabbie {
         return name;
     }
 
+    // Give the cabbie a road network to plan routes on, starting at the given junction
+    public void setRoutePlanner(RoutePlanner routePlanner, int location) {
+        this.routePlanner = routePlanner;
+        this.location = location;
+    }
+
+    // Get the junction the cabbie is at
+    public int getLocation() {
+        return location;
+    }
+
+    // Get the cab assigned to the cabbie
+    public Cab getCab() {
+        return myCab;
+    }
+
     // Get the name of the company
     public static String getCompanyName() {
         return companyName;
     }
 
     // ! Public interface
-    public void giveDestination() {
-        turnRight();
-        turnLeft();
+    // Drive to the destination junction, returns the turns taken on the way
+    public List<Turn> giveDestination(int destination) {
+        if (routePlanner == null) {
+            throw new IllegalStateException("Cabbie has no road network to plan a route on");
+        }
+        Route route = routePlanner.route(location, destination);
+        if (route == null) {
+            throw new IllegalArgumentException("No route from " + location + " to " + destination);
+        }
+        for (Turn turn : route.getTurns()) {
+            if (turn == Turn.RIGHT) {
+                turnRight();
+            } else if (turn == Turn.LEFT) {
+                turnLeft();
+            }
+        }
+        location = destination;
+        return route.getTurns();
     }
 
     // ! Private implementations
@@ -0,0 +1,29 @@
+package com.example.chapter_04;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Emitted by ShoppingCart.addItem; off unless a recording enables it, e.g. with oottp.jfc
+@Name("com.example.CartMutation")
+@Label("Cart Mutation")
+@Category({ "Object-Oriented Thought Process", "Shopping Cart" })
+@Enabled(false)
+@StackTrace(false)
+class CartMutationEvent extends Event {
+
+    @Label("Item")
+    @Description("The item added, or the first item of a bulk add")
+    String item;
+
+    @Label("Items Added")
+    int size;
+
+    @Label("Already In Cart")
+    @Description("True when a single added item was already in the cart, so only its quantity changed")
+    boolean existing;
+}
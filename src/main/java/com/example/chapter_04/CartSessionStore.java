@@ -0,0 +1,327 @@
+package com.example.chapter_04;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/*
+ * Keeps the most recently used carts on the heap and parks the rest,
+ * encoded, in large direct-memory slabs that the garbage collector never
+ * scans. Slabs are filled front to back. A slab whose carts are all gone is
+ * freed, and one that falls below a quarter full has its remaining carts
+ * moved into the current slab first, so a few long-lived carts cannot keep
+ * whole slabs alive.
+ *
+ * A cart is only safe to change while it is pinned: a cart returned by get()
+ * can be parked by another thread at any moment, and changes made through
+ * that reference afterwards are lost. Use compute() or pin()/unpin() to
+ * change a cart; pinned carts stay on the heap even past maxResidentCarts.
+ */
+public class CartSessionStore {
+
+    static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+
+    // A slab with less than 1 / COMPACT_DIVISOR of its bytes live is compacted
+    static final int COMPACT_DIVISOR = 4;
+
+    // Every store, summed by the gauges; weak so an abandoned store can still be collected
+    private static final Set<CartSessionStore> STORES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        MetricsRegistry.getDefault().gauge("cart_session_store_resident_carts", () -> sumOverStores(CartSessionStore::residentCount));
+        MetricsRegistry.getDefault().gauge("cart_session_store_parked_carts", () -> sumOverStores(CartSessionStore::parkedCount));
+        MetricsRegistry.getDefault().gauge("cart_session_store_off_heap_bytes", () -> sumOverStores(CartSessionStore::offHeapBytes));
+    }
+
+    private final int slabSize;
+    private final int maxResidentCarts;
+    private final LinkedHashMap<String, ShoppingCart> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // Session id -> number of callers currently holding the cart
+    private final Map<String, Integer> pins = new HashMap<>();
+    // Session id -> slab index in the high 32 bits, offset in the low 32 bits
+    private final Map<String, Long> parked = new HashMap<>();
+    // Freed slabs leave a null, so the indexes stored in parked locations stay valid
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final List<int[]> slabLiveBytes = new ArrayList<>();
+    private int currentSlab = -1;
+
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final DataOutputStream encoder = new DataOutputStream(scratch);
+
+    public CartSessionStore(int maxResidentCarts) {
+        this(maxResidentCarts, DEFAULT_SLAB_SIZE);
+    }
+
+    public CartSessionStore(int maxResidentCarts, int slabSize) {
+        this.slabSize = slabSize;
+        this.maxResidentCarts = maxResidentCarts;
+        STORES.add(this);
+    }
+
+    public synchronized void put(String sessionId, ShoppingCart cart) {
+        release(parked.remove(sessionId));
+        resident.put(sessionId, cart);
+        evictOverflow();
+    }
+
+    // Returns the cart for reading, rehydrating it onto the heap if it was parked; null if unknown
+    public synchronized ShoppingCart get(String sessionId) {
+        ShoppingCart cart = load(sessionId);
+        evictOverflow();
+        return cart;
+    }
+
+    // Returns the cart and keeps it on the heap until a matching unpin(); null if unknown
+    public synchronized ShoppingCart pin(String sessionId) {
+        ShoppingCart cart = load(sessionId);
+        if (cart != null) {
+            pins.merge(sessionId, 1, Integer::sum);
+        }
+        evictOverflow();
+        return cart;
+    }
+
+    public synchronized void unpin(String sessionId) {
+        Integer count = pins.get(sessionId);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            pins.put(sessionId, count - 1);
+        } else {
+            pins.remove(sessionId);
+            evictOverflow();
+        }
+    }
+
+    // Runs fn on the pinned cart and returns its result; fn gets null if the session is unknown
+    public <T> T compute(String sessionId, Function<ShoppingCart, T> fn) {
+        ShoppingCart cart = pin(sessionId);
+        if (cart == null) {
+            return fn.apply(null);
+        }
+        // Outside the store's lock, so carts of different sessions are worked on in parallel
+        try {
+            return fn.apply(cart);
+        } finally {
+            unpin(sessionId);
+        }
+    }
+
+    public synchronized ShoppingCart remove(String sessionId) {
+        pins.remove(sessionId);
+        ShoppingCart cart = resident.remove(sessionId);
+        if (cart != null) {
+            return cart;
+        }
+        Long location = parked.remove(sessionId);
+        if (location == null) {
+            return null;
+        }
+        cart = decode(location);
+        release(location);
+        return cart;
+    }
+
+    public synchronized int residentCount() {
+        return resident.size();
+    }
+
+    public synchronized int parkedCount() {
+        return parked.size();
+    }
+
+    public synchronized long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer slab : slabs) {
+            if (slab != null) {
+                bytes += slabSize;
+            }
+        }
+        return bytes;
+    }
+
+    private static long sumOverStores(ToLongFunction<CartSessionStore> value) {
+        long sum = 0;
+        synchronized (STORES) {
+            for (CartSessionStore store : STORES) {
+                sum += value.applyAsLong(store);
+            }
+        }
+        return sum;
+    }
+
+    private ShoppingCart load(String sessionId) {
+        ShoppingCart cart = resident.get(sessionId);
+        if (cart == null) {
+            Long location = parked.remove(sessionId);
+            if (location == null) {
+                return null;
+            }
+            cart = decode(location);
+            release(location);
+            resident.put(sessionId, cart);
+        }
+        return cart;
+    }
+
+    // Parks the least recently used unpinned carts until at most maxResidentCarts are resident
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, ShoppingCart>> it = resident.entrySet().iterator();
+        while (resident.size() > maxResidentCarts && it.hasNext()) {
+            Map.Entry<String, ShoppingCart> eldest = it.next();
+            if (!pins.containsKey(eldest.getKey())) {
+                park(eldest.getKey(), eldest.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private void park(String sessionId, ShoppingCart cart) {
+        byte[] bytes = encode(cart);
+        int length = Integer.BYTES + bytes.length;
+        if (length > slabSize) {
+            throw new IllegalStateException("Cart for " + sessionId + " needs " + length + " bytes, slabs hold " + slabSize);
+        }
+        parked.put(sessionId, append(bytes, 0, bytes.length));
+    }
+
+    // Writes a length-prefixed record into the current slab and returns its location
+    private long append(byte[] bytes, int offset, int length) {
+        ByteBuffer slab = slabWithRoom(Integer.BYTES + length);
+        int position = slab.position();
+        slab.putInt(length).put(bytes, offset, length);
+        slabLiveBytes.get(currentSlab)[0] += Integer.BYTES + length;
+        return ((long) currentSlab << 32) | position;
+    }
+
+    private ByteBuffer slabWithRoom(int length) {
+        if (currentSlab >= 0 && slabs.get(currentSlab).remaining() >= length) {
+            return slabs.get(currentSlab);
+        }
+        int free = slabs.indexOf(null);
+        if (free < 0) {
+            free = slabs.size();
+            slabs.add(null);
+            slabLiveBytes.add(new int[1]);
+        }
+        slabs.set(free, ByteBuffer.allocateDirect(slabSize));
+        slabLiveBytes.get(free)[0] = 0;
+        currentSlab = free;
+        return slabs.get(free);
+    }
+
+    private void release(Long location) {
+        if (location == null) {
+            return;
+        }
+        int slab = (int) (location >>> 32);
+        int offset = (int) (long) location;
+        int live = slabLiveBytes.get(slab)[0] -= Integer.BYTES + slabs.get(slab).getInt(offset);
+        if (slab == currentSlab) {
+            if (live == 0) {
+                slabs.get(slab).clear();
+            }
+        } else if (live == 0) {
+            slabs.set(slab, null);
+        } else if (live < slabSize / COMPACT_DIVISOR) {
+            compact(slab);
+        }
+    }
+
+    // Moves the carts still parked in a sparse slab into the current one, then frees it
+    private void compact(int slab) {
+        ByteBuffer source = slabs.get(slab);
+        byte[] bytes = new byte[256];
+        for (Map.Entry<String, Long> entry : parked.entrySet()) {
+            long location = entry.getValue();
+            if ((int) (location >>> 32) != slab) {
+                continue;
+            }
+            int offset = (int) location;
+            int length = source.getInt(offset);
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            source.get(offset + Integer.BYTES, bytes, 0, length);
+            entry.setValue(append(bytes, 0, length));
+        }
+        slabLiveBytes.get(slab)[0] = 0;
+        slabs.set(slab, null);
+    }
+
+    // password hash (nullable), item count, then item / quantity pairs
+    private byte[] encode(ShoppingCart cart) {
+        scratch.reset();
+        try {
+            PasswordHash passwordHash = cart.passwordHash;
+            encoder.writeBoolean(passwordHash != null);
+            if (passwordHash != null) {
+                writeBytes(passwordHash.getSalt());
+                writeBytes(passwordHash.getHash());
+                encoder.writeInt(passwordHash.getIterations());
+            }
+            Map<String, Integer> items = cart.getItems();
+            encoder.writeInt(items.size());
+            for (Map.Entry<String, Integer> entry : items.entrySet()) {
+                encoder.writeUTF(entry.getKey());
+                encoder.writeInt(entry.getValue());
+            }
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return scratch.toByteArray();
+    }
+
+    private ShoppingCart decode(long location) {
+        ByteBuffer slab = slabs.get((int) (location >>> 32));
+        int offset = (int) location;
+        byte[] bytes = new byte[slab.getInt(offset)];
+        slab.get(offset + Integer.BYTES, bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            PasswordHash passwordHash = null;
+            if (in.readBoolean()) {
+                byte[] salt = readBytes(in);
+                byte[] hash = readBytes(in);
+                passwordHash = new PasswordHash(in.readInt(), salt, hash);
+            }
+            int count = in.readInt();
+            Map<String, Integer> items = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                items.put(in.readUTF(), in.readInt());
+            }
+            return new ShoppingCart(items, passwordHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        encoder.writeShort(bytes.length);
+        encoder.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
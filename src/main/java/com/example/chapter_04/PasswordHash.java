@@ -0,0 +1,108 @@
+package com.example.chapter_04;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/*
+ * Salted PBKDF2 hash of a password. The work factor is read from the
+ * "shoppingcart.password.iterations" system property so each deployment can
+ * tune it, and it is stored with the hash so older hashes keep verifying.
+ *
+ * After a successful check a keyed tag of the password is remembered, so
+ * repeating the same password costs one HMAC instead of a full PBKDF2 run.
+ * The HMAC key is random per JVM and never leaves memory.
+ */
+public final class PasswordHash {
+
+    static final int DEFAULT_ITERATIONS = 210_000;
+    static final int SALT_BYTES = 16;
+    static final int HASH_BITS = 256;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final SecretKeySpec TAG_KEY;
+
+    static {
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        TAG_KEY = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] hash;
+    private volatile byte[] verifiedTag;
+
+    PasswordHash(int iterations, byte[] salt, byte[] hash) {
+        this.iterations = iterations;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    public static PasswordHash create(String password) {
+        return create(password, Integer.getInteger("shoppingcart.password.iterations", DEFAULT_ITERATIONS));
+    }
+
+    public static PasswordHash create(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(iterations, salt, pbkdf2(password, salt, iterations));
+    }
+
+    // Comparisons take the same time whether the first or the last byte differs
+    public boolean verify(String candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        byte[] tag = tag(candidate);
+        byte[] cached = verifiedTag;
+        if (cached != null && MessageDigest.isEqual(cached, tag)) {
+            return true;
+        }
+        boolean matches = MessageDigest.isEqual(hash, pbkdf2(candidate, salt, iterations));
+        if (matches) {
+            verifiedTag = tag;
+        }
+        return matches;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    byte[] getSalt() {
+        return salt.clone();
+    }
+
+    byte[] getHash() {
+        return hash.clone();
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private byte[] tag(String candidate) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(TAG_KEY);
+            mac.update(salt);
+            return mac.doFinal(candidate.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
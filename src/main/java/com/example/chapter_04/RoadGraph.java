@@ -0,0 +1,78 @@
+package com.example.chapter_04;
+
+/*
+ * Directed road network in compressed sparse row form: the outgoing roads of
+ * node n are edges edgeStart[n] .. edgeStart[n + 1], stored in flat primitive
+ * arrays. Road lengths must be at least the straight-line distance between
+ * their ends, which keeps the A* heuristic in RoutePlanner admissible.
+ */
+public final class RoadGraph {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final double[] edgeLength;
+
+    // Road i goes from[i] -> to[i] with the given length
+    public RoadGraph(double[] xs, double[] ys, int[] from, int[] to, double[] lengths) {
+        if (xs.length != ys.length || from.length != to.length || from.length != lengths.length) {
+            throw new IllegalArgumentException("Coordinate and road arrays must have matching lengths");
+        }
+        int nodeCount = xs.length;
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.edgeStart = new int[nodeCount + 1];
+        this.edgeTarget = new int[from.length];
+        this.edgeLength = new double[from.length];
+
+        for (int i = 0; i < from.length; i++) {
+            double straight = Math.hypot(xs[to[i]] - xs[from[i]], ys[to[i]] - ys[from[i]]);
+            if (lengths[i] < straight - 1e-9) {
+                throw new IllegalArgumentException("Road " + i + " is shorter than the straight line between its ends");
+            }
+            edgeStart[from[i] + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            edgeStart[n + 1] += edgeStart[n];
+        }
+        int[] fill = edgeStart.clone();
+        for (int i = 0; i < from.length; i++) {
+            int slot = fill[from[i]]++;
+            edgeTarget[slot] = to[i];
+            edgeLength[slot] = lengths[i];
+        }
+    }
+
+    public int nodeCount() {
+        return xs.length;
+    }
+
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    public double getX(int node) {
+        return xs[node];
+    }
+
+    public double getY(int node) {
+        return ys[node];
+    }
+
+    int firstEdge(int node) {
+        return edgeStart[node];
+    }
+
+    int endEdge(int node) {
+        return edgeStart[node + 1];
+    }
+
+    int target(int edge) {
+        return edgeTarget[edge];
+    }
+
+    double length(int edge) {
+        return edgeLength[edge];
+    }
+}
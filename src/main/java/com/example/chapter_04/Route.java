@@ -0,0 +1,39 @@
+package com.example.chapter_04;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// An immutable path through a RoadGraph with the turn taken at every intermediate junction
+public final class Route {
+
+    private final int[] nodes;
+    private final double length;
+    private final List<Turn> turns;
+
+    Route(int[] nodes, double length, List<Turn> turns) {
+        this.nodes = nodes;
+        this.length = length;
+        this.turns = Collections.unmodifiableList(turns);
+    }
+
+    public int[] getNodes() {
+        return Arrays.copyOf(nodes, nodes.length);
+    }
+
+    public int getOrigin() {
+        return nodes[0];
+    }
+
+    public int getDestination() {
+        return nodes[nodes.length - 1];
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public List<Turn> getTurns() {
+        return turns;
+    }
+}
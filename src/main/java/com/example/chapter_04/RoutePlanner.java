@@ -0,0 +1,210 @@
+package com.example.chapter_04;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Shortest routes over a RoadGraph using A* with a straight-line distance
+ * heuristic. Recently planned origin/destination pairs are kept in a bounded
+ * LRU cache, since the same popular routes are asked for again and again.
+ * Search scratch space is kept per thread and reset lazily with a generation
+ * stamp, so a query does not clear arrays the size of the whole graph.
+ */
+public class RoutePlanner {
+
+    static final int DEFAULT_CACHE_SIZE = 4096;
+
+    // Turns sharper than this many degrees count as left or right
+    static final double STRAIGHT_TOLERANCE_DEGREES = 20;
+
+    private final RoadGraph graph;
+    private final Map<Long, Route> cache;
+    private final ThreadLocal<SearchState> searchState;
+
+    public RoutePlanner(RoadGraph graph) {
+        this(graph, DEFAULT_CACHE_SIZE);
+    }
+
+    public RoutePlanner(RoadGraph graph, int cacheSize) {
+        this.graph = graph;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Long, Route>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Route> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.searchState = ThreadLocal.withInitial(() -> new SearchState(graph.nodeCount()));
+    }
+
+    // The shortest route, or null when the destination cannot be reached
+    public Route route(int origin, int destination) {
+        long key = ((long) origin << 32) | (destination & 0xffffffffL);
+        Route cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Route route = search(origin, destination);
+        if (route != null) {
+            cache.put(key, route);
+        }
+        return route;
+    }
+
+    private Route search(int origin, int destination) {
+        SearchState state = searchState.get();
+        state.reset();
+        state.open(origin, 0, -1, heuristic(origin, destination));
+
+        while (state.heapSize > 0) {
+            int node = state.pop();
+            if (state.isClosed(node)) {
+                continue;
+            }
+            state.close(node);
+            if (node == destination) {
+                return buildRoute(state, destination);
+            }
+            double base = state.distance[node];
+            for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+                int next = graph.target(edge);
+                double distance = base + graph.length(edge);
+                if (!state.isClosed(next) && (!state.isSeen(next) || distance < state.distance[next])) {
+                    state.open(next, distance, node, distance + heuristic(next, destination));
+                }
+            }
+        }
+        return null;
+    }
+
+    private double heuristic(int node, int destination) {
+        return Math.hypot(graph.getX(destination) - graph.getX(node), graph.getY(destination) - graph.getY(node));
+    }
+
+    private Route buildRoute(SearchState state, int destination) {
+        int count = 0;
+        for (int node = destination; node != -1; node = state.parent[node]) {
+            count++;
+        }
+        int[] nodes = new int[count];
+        for (int node = destination, i = count - 1; node != -1; node = state.parent[node], i--) {
+            nodes[i] = node;
+        }
+
+        List<Turn> turns = new ArrayList<>(Math.max(0, count - 2));
+        for (int i = 1; i + 1 < count; i++) {
+            turns.add(turnAt(nodes[i - 1], nodes[i], nodes[i + 1]));
+        }
+        return new Route(nodes, state.distance[destination], turns);
+    }
+
+    private Turn turnAt(int previous, int junction, int next) {
+        double ax = graph.getX(junction) - graph.getX(previous);
+        double ay = graph.getY(junction) - graph.getY(previous);
+        double bx = graph.getX(next) - graph.getX(junction);
+        double by = graph.getY(next) - graph.getY(junction);
+        double angle = Math.toDegrees(Math.atan2(ax * by - ay * bx, ax * bx + ay * by));
+        if (Math.abs(angle) <= STRAIGHT_TOLERANCE_DEGREES) {
+            return Turn.STRAIGHT;
+        }
+        return angle > 0 ? Turn.LEFT : Turn.RIGHT;
+    }
+
+    // Per-thread A* scratch: distances, parents and a binary min-heap of (node, priority)
+    private static class SearchState {
+
+        final double[] distance;
+        final int[] parent;
+        // seen[n] == generation: n has a distance this search; closed[n] == generation: n is settled
+        final int[] seen;
+        final int[] closed;
+        int generation;
+
+        int[] heapNodes = new int[64];
+        double[] heapKeys = new double[64];
+        int heapSize;
+
+        SearchState(int nodeCount) {
+            distance = new double[nodeCount];
+            parent = new int[nodeCount];
+            seen = new int[nodeCount];
+            closed = new int[nodeCount];
+        }
+
+        void reset() {
+            heapSize = 0;
+            if (++generation == 0) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                generation = 1;
+            }
+        }
+
+        boolean isSeen(int node) {
+            return seen[node] == generation;
+        }
+
+        boolean isClosed(int node) {
+            return closed[node] == generation;
+        }
+
+        void close(int node) {
+            closed[node] = generation;
+        }
+
+        // Stale heap entries are skipped when popped instead of being updated in place
+        void open(int node, double nodeDistance, int from, double priority) {
+            seen[node] = generation;
+            distance[node] = nodeDistance;
+            parent[node] = from;
+            push(node, priority);
+        }
+
+        void push(int node, double key) {
+            if (heapSize == heapNodes.length) {
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (heapKeys[up] <= key) {
+                    break;
+                }
+                heapNodes[i] = heapNodes[up];
+                heapKeys[i] = heapKeys[up];
+                i = up;
+            }
+            heapNodes[i] = node;
+            heapKeys[i] = key;
+        }
+
+        int pop() {
+            int top = heapNodes[0];
+            int lastNode = heapNodes[--heapSize];
+            double lastKey = heapKeys[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if (heapKeys[child] >= lastKey) {
+                    break;
+                }
+                heapNodes[i] = heapNodes[child];
+                heapKeys[i] = heapKeys[child];
+                i = child;
+            }
+            heapNodes[i] = lastNode;
+            heapKeys[i] = lastKey;
+            return top;
+        }
+    }
+}
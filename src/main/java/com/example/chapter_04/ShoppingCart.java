@@ -1,28 +1,103 @@
 package com.example.chapter_04;
 
+import com.example.metrics.Counter;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class ShoppingCart {
 
-    String password;
-    String[] items;
+    private static final LatencyHistogram ADD_ITEM_NANOS = MetricsRegistry.getDefault().histogram("shopping_cart_add_item_nanos");
+    private static final Counter ITEMS_ADDED = MetricsRegistry.getDefault().counter("shopping_cart_items_added_total");
+    private static final Counter PASSWORD_CHECKS = MetricsRegistry.getDefault().counter("shopping_cart_password_checks_total");
+    private static final Counter PASSWORD_FAILURES = MetricsRegistry.getDefault().counter("shopping_cart_password_failures_total");
+
+    // Only a salted hash is kept, never the password itself
+    PasswordHash passwordHash;
+    // Item -> quantity; safe for many threads updating the same cart
+    private final ConcurrentHashMap<String, Integer> items = new ConcurrentHashMap<>();
 
     public ShoppingCart(String[] items) {
-        password = null;
-        this.items = items;
+        passwordHash = null;
+        addItem(items);
     }
 
     public ShoppingCart(String[] items, String password) {
-        this.password = password;
-        this.items = items;
+        this.passwordHash = password == null ? null : PasswordHash.create(password);
+        addItem(items);
+    }
+
+    // Used when a cart is rehydrated from a CartSessionStore
+    ShoppingCart(Map<String, Integer> items, PasswordHash passwordHash) {
+        this.passwordHash = passwordHash;
+        this.items.putAll(items);
+    }
+
+    // False when the cart has no password
+    public boolean checkPassword(String candidate) {
+        PASSWORD_CHECKS.increment();
+        boolean valid = passwordHash != null && passwordHash.verify(candidate);
+        if (!valid) {
+            PASSWORD_FAILURES.increment();
+        }
+        return valid;
     }
 
     public String addItem(String item) {
-        // Add item to the shopping cart
+        long start = System.nanoTime();
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        int quantity = items.merge(item, 1, Integer::sum);
+        ITEMS_ADDED.increment();
+        ADD_ITEM_NANOS.recordSince(start);
+        if (event.shouldCommit()) {
+            event.item = item;
+            event.size = 1;
+            event.existing = quantity > 1;
+            event.commit();
+        }
         return "added an item";
     }
 
-    public String addItem(String[] items){
-        // Add items to the shopping cart
+    public String addItem(String[] items) {
+        long start = System.nanoTime();
+        CartMutationEvent event = new CartMutationEvent();
+        event.begin();
+        // Collapse duplicates locally first so each distinct item touches the shared map once
+        Map<String, Integer> counts = new HashMap<>();
+        for (String item : items) {
+            counts.merge(item, 1, Integer::sum);
+        }
+        counts.forEach((item, quantity) -> this.items.merge(item, quantity, Integer::sum));
+        ITEMS_ADDED.add(items.length);
+        ADD_ITEM_NANOS.recordSince(start);
+        if (event.shouldCommit()) {
+            event.item = items.length > 0 ? items[0] : null;
+            event.size = items.length;
+            event.commit();
+        }
         return "added items";
     }
 
+    public boolean removeItem(String item) {
+        return items.remove(item) != null;
+    }
+
+    public int getQuantity(String item) {
+        return items.getOrDefault(item, 0);
+    }
+
+    public boolean containsItem(String item) {
+        return items.containsKey(item);
+    }
+
+    // Read-only live view of item -> quantity
+    public Map<String, Integer> getItems() {
+        return Collections.unmodifiableMap(items);
+    }
+
 }
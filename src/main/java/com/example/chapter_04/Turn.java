@@ -0,0 +1,7 @@
+package com.example.chapter_04;
+
+public enum Turn {
+    LEFT,
+    RIGHT,
+    STRAIGHT
+}
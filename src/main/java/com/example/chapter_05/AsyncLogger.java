@@ -0,0 +1,221 @@
+package com.example.chapter_05;
+
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+
+/*
+ * A Logger that hands messages to a ring buffer and returns immediately.
+ * A single writer thread drains the buffer in batches into the Writer and
+ * flushes once enough lines are pending or the flush interval has passed.
+ * With nothing left to write it sleeps until a producer wakes it, or until
+ * its pending lines are due a flush, instead of polling.
+ */
+public class AsyncLogger extends Logger implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        // Wait for the writer thread to make room
+        BLOCK,
+        // Discard the message and count it
+        DROP
+    }
+
+    // How long a producer waits between retries when the buffer is full
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // Time a caller spends handing a message over, apart from the writer thread's time writing it
+    private static final LatencyHistogram LOG_NANOS = MetricsRegistry.getDefault().histogram("async_logger_log_nanos");
+    private static final LatencyHistogram WRITE_NANOS = MetricsRegistry.getDefault().histogram("async_logger_write_nanos");
+
+    // Loggers not yet closed, summed by the gauges. A logger is removed by close(); one that is
+    // never closed stays reachable anyway, through its writer thread
+    private static final Set<AsyncLogger> OPEN = ConcurrentHashMap.newKeySet();
+
+    static {
+        MetricsRegistry.getDefault().gauge("async_logger_buffered", () -> sumOverOpen(logger -> logger.buffer.size()));
+        MetricsRegistry.getDefault().gauge("async_logger_dropped", () -> sumOverOpen(AsyncLogger::getDroppedCount));
+    }
+
+    private final LogRingBuffer buffer;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy policy;
+    private final Thread writerThread;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+    private volatile IOException failure;
+    // Set while the writer thread is parked with nothing left to write, so producers know to wake it
+    private volatile boolean sleeping;
+
+    public AsyncLogger(Writer writer) {
+        this(writer, 8192, 512, 100, OverflowPolicy.BLOCK);
+    }
+
+    public AsyncLogger(Writer writer, int capacity, int flushSize, long flushIntervalMillis, OverflowPolicy policy) {
+        super(writer);
+        if (flushSize <= 0) {
+            throw new IllegalArgumentException("flushSize must be positive: " + flushSize);
+        }
+        this.buffer = new LogRingBuffer(capacity);
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.policy = policy;
+        this.writerThread = new Thread(this::drainLoop, "async-logger");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        OPEN.add(this);
+    }
+
+    @Override
+    public void log(String message) throws IOException {
+        long start = System.nanoTime();
+        try {
+            enqueue(message);
+        } finally {
+            LOG_NANOS.recordSince(start);
+        }
+    }
+
+    private void enqueue(String message) throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw error;
+        }
+        if (!running) {
+            throw new IOException("Logger is closed");
+        }
+        while (!buffer.offer(message)) {
+            if (policy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return;
+            }
+            // The writer thread may have died or been stopped while this producer waited for room
+            error = failure;
+            if (error != null) {
+                throw error;
+            }
+            if (!running) {
+                throw new IOException("Logger is closed");
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        if (sleeping) {
+            LockSupport.unpark(writerThread);
+        }
+        if (!running) {
+            // close() raced this call and the writer thread may already have done its last drain
+            drainRemaining();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // Stops accepting messages, writes out whatever is buffered and flushes; the Writer itself is left open
+    @Override
+    public void close() throws IOException {
+        running = false;
+        OPEN.remove(this);
+        // Not interrupt(): an interrupted thread would close a FileChannel-backed writer under it
+        LockSupport.unpark(writerThread);
+        drainRemaining();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Once the writer thread has exited, writes out anything enqueued after its final drain
+    private synchronized void drainRemaining() throws IOException {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writerThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null || buffer.isEmpty()) {
+            return;
+        }
+        try {
+            String[] batch = new String[flushSize];
+            int count;
+            while ((count = buffer.drainTo(batch)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    writeLine(batch[i]);
+                    batch[i] = null;
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private void writeLine(String message) throws IOException {
+        long start = System.nanoTime();
+        write(message);
+        WRITE_NANOS.recordSince(start);
+    }
+
+    private static long sumOverOpen(ToLongFunction<AsyncLogger> value) {
+        long sum = 0;
+        for (AsyncLogger logger : OPEN) {
+            sum += value.applyAsLong(logger);
+        }
+        return sum;
+    }
+
+    private void drainLoop() {
+        String[] batch = new String[flushSize];
+        int unflushed = 0;
+        long lastFlush = System.nanoTime();
+        try {
+            while (running || !buffer.isEmpty()) {
+                int count = buffer.drainTo(batch);
+                for (int i = 0; i < count; i++) {
+                    writeLine(batch[i]);
+                    batch[i] = null;
+                }
+                unflushed += count;
+
+                long now = System.nanoTime();
+                if (unflushed >= flushSize || (unflushed > 0 && now - lastFlush >= flushIntervalNanos)) {
+                    flush();
+                    unflushed = 0;
+                    lastFlush = now;
+                }
+                if (count == 0 && running) {
+                    // Sleep until a producer wakes us, or until the pending lines are due a flush
+                    sleeping = true;
+                    if (running && buffer.isEmpty()) {
+                        if (unflushed > 0) {
+                            LockSupport.parkNanos(flushIntervalNanos - (now - lastFlush));
+                        } else {
+                            LockSupport.park(this);
+                        }
+                    }
+                    sleeping = false;
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+            running = false;
+        }
+    }
+}
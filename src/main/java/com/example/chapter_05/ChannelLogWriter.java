@@ -0,0 +1,190 @@
+package com.example.chapter_05;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * A Writer that encodes straight into a small pool of direct buffers and
+ * writes them to a FileChannel with one gathering write when the pool is
+ * full or on flush(). At the first line end after the file reaches
+ * maxFileBytes it is renamed to name.1, name.2, ... and a fresh file is
+ * started, so lines are never split across files. Like the java.io
+ * writers, every call holds the Writer's lock, so threads can share one.
+ */
+public class ChannelLogWriter extends Writer {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final int BUFFER_COUNT = 4;
+
+    private final Path path;
+    private final long maxFileBytes;
+    private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private int current;
+    private FileChannel channel;
+    private long fileBytes;
+    private int generation;
+
+    // A high surrogate left over from the previous write, waiting for its low half
+    private final char[] carry = new char[2];
+    private boolean hasCarry;
+
+    public ChannelLogWriter(Path path, long maxFileBytes) throws IOException {
+        this.path = path;
+        this.maxFileBytes = maxFileBytes;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        while (Files.exists(rolledPath(generation + 1))) {
+            generation++;
+        }
+        openChannel();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            if (c < 0x80 && !hasCarry) {
+                if (!buffers[current].hasRemaining()) {
+                    nextBuffer();
+                }
+                buffers[current].put((byte) c);
+                if (c == '\n') {
+                    endOfLine();
+                }
+            } else {
+                write(new char[] { (char) c }, 0, 1);
+            }
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            encode(CharBuffer.wrap(cbuf, off, len));
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            // Wrapping the String reads its chars in place instead of copying them out first
+            encode(CharBuffer.wrap(str, off, off + len));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            writeBuffers();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                writeBuffers();
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    private void encode(CharBuffer in) throws IOException {
+        if (hasCarry && in.hasRemaining()) {
+            hasCarry = false;
+            carry[1] = in.get();
+            encode(CharBuffer.wrap(carry, 0, 2));
+        }
+        while (true) {
+            CoderResult result = encoder.encode(in, buffers[current], false);
+            if (result.isOverflow()) {
+                nextBuffer();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        if (in.hasRemaining()) {
+            carry[0] = in.get();
+            hasCarry = true;
+        } else if (in.limit() > 0 && in.get(in.limit() - 1) == '\n') {
+            endOfLine();
+        }
+    }
+
+    private void endOfLine() throws IOException {
+        long buffered = 0;
+        for (int i = 0; i <= current && i < buffers.length; i++) {
+            buffered += buffers[i].position();
+        }
+        if (fileBytes + buffered >= maxFileBytes) {
+            writeBuffers();
+            roll();
+        }
+    }
+
+    private void nextBuffer() throws IOException {
+        if (++current == buffers.length) {
+            writeBuffers();
+        }
+    }
+
+    private void writeBuffers() throws IOException {
+        if (channel == null) {
+            throw new IOException("Writer is closed");
+        }
+        int count = java.lang.Math.min(current + 1, buffers.length);
+        long pending = 0;
+        for (int i = 0; i < count; i++) {
+            buffers[i].flip();
+            pending += buffers[i].remaining();
+        }
+        if (pending > 0) {
+            long remaining = pending;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers, 0, count);
+            }
+            fileBytes += pending;
+        }
+        for (int i = 0; i < count; i++) {
+            buffers[i].clear();
+        }
+        current = 0;
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        generation++;
+        Files.move(path, rolledPath(generation), StandardCopyOption.REPLACE_EXISTING);
+        openChannel();
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    private Path rolledPath(int n) {
+        return path.resolveSibling(path.getFileName() + "." + n);
+    }
+}
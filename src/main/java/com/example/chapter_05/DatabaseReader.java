@@ -1,17 +1,91 @@
 package com.example.chapter_05;
 
+import com.example.metrics.Counter;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Reads newline-delimited records from a file. The file is memory-mapped in
+ * fixed-size pages and an offset index is built on open, so a record lookup is
+ * O(1) and nothing is copied onto the heap until a record is actually asked for.
+ * The index itself lives on the heap: 8 bytes per record, so about 8 GB for a
+ * billion records. Records are keyed by int, so a store holds at most
+ * MAX_RECORDS of them; opening a larger file fails.
+ */
 public class DatabaseReader {
 
-    private String[] db = { "Record1", "Record2", "Record3", "Record4", "Record5" };
+    // A single MappedByteBuffer cannot exceed 2GB, so large files are mapped page by page
+    static final int PAGE_SIZE = 1 << 30;
+
+    // The largest array most JVMs will allocate; the index needs one slot past the last record
+    static final int MAX_INDEX_LENGTH = Integer.MAX_VALUE - 8;
+    static final int MAX_RECORDS = MAX_INDEX_LENGTH - 1;
+
+    private static final LatencyHistogram GET_RECORD_NANOS = MetricsRegistry.getDefault().histogram("database_reader_get_record_nanos");
+    private static final Counter BYTES_READ = MetricsRegistry.getDefault().counter("database_reader_bytes_read_total");
+    private static final Counter OPENS = MetricsRegistry.getDefault().counter("database_reader_opens_total");
+
+    private FileChannel channel;
+    // Replaced as a whole, so a cursor's background read racing close() sees the old store or none
+    private volatile Mapping mapping;
     private boolean DBOpen = false;
     private int pos;
 
+    // Opening a reader that is already open closes the previous store first
     public void open(String name) {
+        if (DBOpen) {
+            close();
+        }
+        try {
+            channel = FileChannel.open(Path.of(name), StandardOpenOption.READ);
+            long size = channel.size();
+            int pageCount = (int) ((size + PAGE_SIZE - 1) / PAGE_SIZE);
+            MappedByteBuffer[] pages = new MappedByteBuffer[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                long start = (long) i * PAGE_SIZE;
+                pages[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, java.lang.Math.min(PAGE_SIZE, size - start));
+            }
+            mapping = buildIndex(name, pages, size);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Could not open record store " + name, e);
+        }
+        pos = 0;
         DBOpen = true;
+        OPENS.increment();
     }
 
     public void close() {
         DBOpen = false;
+        mapping = null;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    public boolean isOpen() {
+        return DBOpen;
     }
 
     public void goToFirst() {
@@ -19,21 +93,132 @@ public class DatabaseReader {
     }
 
     public void goToLast() {
-        pos = 4;
+        pos = howManyRecords() - 1;
     }
 
     public int howManyRecords() {
-        int numOfRecords = 5;
-        return numOfRecords;
+        Mapping current = mapping;
+        return current == null ? 0 : current.count();
     }
 
     public String getRecord(int key) {
-        /* DB Specific Implementation */
-        return db[key];
+        long start = System.nanoTime();
+        RecordReadEvent event = new RecordReadEvent();
+        event.begin();
+        ByteBuffer bytes = getRecordBuffer(key);
+        int size = bytes.remaining();
+        BYTES_READ.add(size);
+        String record = StandardCharsets.UTF_8.decode(bytes).toString();
+        GET_RECORD_NANOS.recordSince(start);
+        if (event.shouldCommit()) {
+            event.key = key;
+            event.size = size;
+            // Slices of the mapping are direct; records copied across a page boundary are not
+            event.mapped = bytes.isDirect();
+            event.commit();
+        }
+        return record;
     }
 
     public String getNextRecord() {
-        /* DB Specific Implementation */
-        return db[pos++];
+        return getRecord(pos++);
+    }
+
+    // Fills out with the records from the current position onwards, returns how many were read (0 at the end)
+    public int nextRecords(String[] out) {
+        int count = java.lang.Math.min(out.length, howManyRecords() - pos);
+        for (int i = 0; i < count; i++) {
+            out[i] = getRecord(pos + i);
+        }
+        pos += count;
+        return count;
+    }
+
+    // A cursor that reads ahead one batch in the background, starting at the current position
+    public RecordCursor cursor(int batchSize) {
+        return cursor(batchSize, ForkJoinPool.commonPool());
+    }
+
+    public RecordCursor cursor(int batchSize, Executor executor) {
+        return new RecordCursor(this, pos, howManyRecords(), batchSize, executor);
+    }
+
+    // Streams every record; sequential traversal reads ahead in batches, parallel streams split by key range
+    public Stream<String> records() {
+        return StreamSupport.stream(new RecordSpliterator(this, 0, howManyRecords(), RecordCursor.DEFAULT_BATCH_SIZE), false);
+    }
+
+    // Returns the raw bytes of a record; a view over the mapping unless the record straddles two pages
+    public ByteBuffer getRecordBuffer(int key) {
+        Mapping current = mapping;
+        if (current == null) {
+            throw new IllegalStateException("Record store is not open");
+        }
+        MappedByteBuffer[] pages = current.pages();
+        long[] offsets = current.offsets();
+        Objects.checkIndex(key, current.count());
+        long start = offsets[key];
+        int length = (int) (offsets[key + 1] - 1 - start);
+        int page = (int) (start / PAGE_SIZE);
+        int offsetInPage = (int) (start % PAGE_SIZE);
+
+        if (offsetInPage + length <= pages[page].limit()) {
+            return pages[page].slice(offsetInPage, length).asReadOnlyBuffer();
+        }
+
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            int chunk = java.lang.Math.min(length - copied, pages[page].limit() - offsetInPage);
+            pages[page].get(offsetInPage, bytes, copied, chunk);
+            copied += chunk;
+            page++;
+            offsetInPage = 0;
+        }
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    private static Mapping buildIndex(String name, MappedByteBuffer[] pages, long size) throws IOException {
+        long[] index = new long[1024];
+        int count = 0;
+        long recordStart = 0;
+
+        for (int page = 0; page < pages.length; page++) {
+            MappedByteBuffer buffer = pages[page];
+            long pageStart = (long) page * PAGE_SIZE;
+            for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    if (count + 1 >= index.length) {
+                        index = grow(name, index);
+                    }
+                    index[count++] = recordStart;
+                    recordStart = pageStart + i + 1;
+                }
+            }
+        }
+
+        // Last record without a trailing newline: pretend the delimiter sits just past the end
+        if (recordStart < size) {
+            if (count + 1 >= index.length) {
+                index = grow(name, index);
+            }
+            index[count++] = recordStart;
+            recordStart = size + 1;
+        }
+
+        index[count] = recordStart;
+        return new Mapping(pages, index, count);
+    }
+
+    // Doubles the index, capped at MAX_INDEX_LENGTH; int arithmetic would overflow past 2^30 entries
+    private static long[] grow(String name, long[] index) throws IOException {
+        if (index.length >= MAX_INDEX_LENGTH) {
+            throw new IOException("Record store " + name + " holds more than " + MAX_RECORDS + " records");
+        }
+        return Arrays.copyOf(index, (int) java.lang.Math.min(2L * index.length, MAX_INDEX_LENGTH));
+    }
+
+    // offsets[i] is where record i starts, offsets[count] is one past the last delimiter
+    private record Mapping(MappedByteBuffer[] pages, long[] offsets, int count) {
     }
-}
\ No newline at end of file
+}
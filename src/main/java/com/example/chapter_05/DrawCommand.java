@@ -0,0 +1,6 @@
+package com.example.chapter_05;
+
+public enum DrawCommand {
+    DRAW,
+    DRAW_ON_SPECIFIC_DEVICE
+}
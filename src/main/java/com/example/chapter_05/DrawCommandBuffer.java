@@ -0,0 +1,78 @@
+package com.example.chapter_05;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Retained-mode counterpart of DrawOnGeneralDevices. Draw calls only record a
+ * one-byte command; flush() runs every command through the stages, renders
+ * the whole frame into one buffer and hands it to the output in a single write.
+ */
+public class DrawCommandBuffer implements IDrawOnSpecificDevice {
+
+    private static final DrawCommand[] COMMANDS = DrawCommand.values();
+
+    private final DrawOnSpecificDevices device;
+    private final PrintStream out;
+    private final List<DrawStage> stages = new ArrayList<>();
+    private final StringBuilder frame = new StringBuilder();
+    private byte[] commands = new byte[64];
+    private int count;
+
+    public DrawCommandBuffer(DrawOnSpecificDevices device) {
+        this(device, System.out);
+    }
+
+    public DrawCommandBuffer(DrawOnSpecificDevices device, PrintStream out) {
+        this.device = device;
+        this.out = out;
+    }
+
+    public DrawCommandBuffer addStage(DrawStage stage) {
+        stages.add(stage);
+        return this;
+    }
+
+    public void draw() {
+        record(DrawCommand.DRAW);
+    }
+
+    public void drawOnSpecificDevice() {
+        record(DrawCommand.DRAW_ON_SPECIFIC_DEVICE);
+    }
+
+    public int pendingCommands() {
+        return count;
+    }
+
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            DrawCommand command = COMMANDS[commands[i]];
+            for (int s = 0; s < stages.size(); s++) {
+                stages.get(s).apply(command, frame);
+            }
+            if (command == DrawCommand.DRAW) {
+                frame.append("Drawing on general devices...\n");
+            } else {
+                device.render(frame);
+            }
+        }
+        out.print(frame);
+        out.flush();
+        frame.setLength(0);
+        count = 0;
+    }
+
+    private void record(DrawCommand command) {
+        if (count == commands.length) {
+            commands = Arrays.copyOf(commands, count * 2);
+        }
+        commands[count++] = (byte) command.ordinal();
+    }
+
+}
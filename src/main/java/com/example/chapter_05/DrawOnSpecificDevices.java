@@ -2,13 +2,35 @@ package com.example.chapter_05;
 
 public class DrawOnSpecificDevices implements IDrawOnSpecificDevice {
 
+    // Resolved once; null when the OS is not one we can draw on
+    private final String deviceMessage;
+
+    public DrawOnSpecificDevices() {
+        this(System.getProperty("os.name"));
+    }
+
+    DrawOnSpecificDevices(String osName) {
+        if ("Windows".equals(osName)) {
+            deviceMessage = "Drawing on Windows devices...";
+        } else if ("Linux".equals(osName)) {
+            deviceMessage = "Drawing on Linux devices...";
+        } else if ("Mac OS X".equals(osName)) {
+            deviceMessage = "Drawing on Mac OS X devices...";
+        } else {
+            deviceMessage = null;
+        }
+    }
+
     public void drawOnSpecificDevice() {
-        if (System.getProperty("os.name").equals("Windows")) {
-            System.out.println("Drawing on Windows devices...");
-        } else if (System.getProperty("os.name").equals("Linux")) {
-            System.out.println("Drawing on Linux devices...");
-        } else if (System.getProperty("os.name").equals("Mac OS X")) {
-            System.out.println("Drawing on Mac OS X devices...");
+        if (deviceMessage != null) {
+            System.out.println(deviceMessage);
+        }
+    }
+
+    // Appends what drawOnSpecificDevice() would print to a frame being built
+    void render(StringBuilder frame) {
+        if (deviceMessage != null) {
+            frame.append(deviceMessage).append('\n');
         }
     }
 
@@ -0,0 +1,11 @@
+package com.example.chapter_05;
+
+/*
+ * A step of the draw pipeline, run for every recorded command before the
+ * command itself is rendered into the frame.
+ */
+public interface DrawStage {
+
+    void apply(DrawCommand command, StringBuilder frame);
+
+}
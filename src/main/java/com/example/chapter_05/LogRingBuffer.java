@@ -0,0 +1,84 @@
+package com.example.chapter_05;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Bounded multi-producer, single-consumer ring buffer of log messages.
+ * Each slot carries a sequence number that tells producers and the consumer
+ * whose turn it is, so neither side takes a lock and offering allocates nothing.
+ */
+class LogRingBuffer {
+
+    private final String[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only touched by the consumer thread
+    private long head;
+    // head as of the end of the last drain, for other threads to read
+    private volatile long drained;
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2: " + capacity);
+        }
+        slots = new String[capacity];
+        sequences = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // Returns false when the buffer is full
+    boolean offer(String message) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = message;
+                    // A full volatile write, so a producer that then reads AsyncLogger.running as true
+                    // is sure to have its message seen by a consumer that later reads it as false
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Moves up to out.length messages into out, returns how many were moved
+    int drainTo(String[] out) {
+        int count = 0;
+        while (count < out.length) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            out[count++] = slots[index];
+            slots[index] = null;
+            sequences.lazySet(index, head + slots.length);
+            head++;
+        }
+        if (count > 0) {
+            drained = head;
+        }
+        return count;
+    }
+
+    // Messages offered but not yet drained; approximate while producers or the consumer are busy
+    int size() {
+        return (int) java.lang.Math.max(0, tail.get() - drained);
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
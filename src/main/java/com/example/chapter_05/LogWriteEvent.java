@@ -0,0 +1,26 @@
+package com.example.chapter_05;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Emitted by Logger.log; off unless a recording enables it, e.g. with oottp.jfc
+@Name("com.example.LogWrite")
+@Label("Log Write")
+@Category({ "Object-Oriented Thought Process", "Logging" })
+@Enabled(false)
+@StackTrace(false)
+class LogWriteEvent extends Event {
+
+    @Label("Logger")
+    @Description("Simple class name of the logger, e.g. AsyncLogger when written from its writer thread")
+    String logger;
+
+    @Label("Length")
+    @Description("Characters written, including the newline")
+    int length;
+}
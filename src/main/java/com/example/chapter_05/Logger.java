@@ -1,10 +1,15 @@
 package com.example.chapter_05;
 
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
 import java.io.IOException;
 import java.io.Writer;
 
 public class Logger {
 
+    private static final LatencyHistogram LOG_NANOS = MetricsRegistry.getDefault().histogram("logger_log_nanos");
+
     private final Writer writer;
 
     public Logger(Writer writer) {
@@ -12,6 +17,29 @@ public class Logger {
     }
 
     public void log(String message) throws IOException {
-        writer.write(message + "\n");
+        long start = System.nanoTime();
+        write(message);
+        LOG_NANOS.recordSince(start);
+    }
+
+    // Writes one line to the writer on the calling thread
+    void write(String message) throws IOException {
+        LogWriteEvent event = new LogWriteEvent();
+        event.begin();
+        // Two writes instead of message + "\n" so no temporary String is built per call,
+        // made under one lock so lines from different threads never interleave
+        synchronized (writer) {
+            writer.write(message);
+            writer.write('\n');
+        }
+        if (event.shouldCommit()) {
+            event.logger = getClass().getSimpleName();
+            event.length = message.length() + 1;
+            event.commit();
+        }
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
     }
 }
@@ -12,6 +12,12 @@ public class Main {
 
         drawWithEffects.draw();
         drawWithEffects.drawOnSpecificDevice();
+
+        DrawCommandBuffer frame = new DrawCommandBuffer(new DrawOnSpecificDevices()).addStage(new ShadowStage());
+
+        frame.draw();
+        frame.drawOnSpecificDevice();
+        frame.flush();
     }
 
 }
@@ -0,0 +1,91 @@
+package com.example.chapter_05;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/*
+ * Scans a range of records in batches. While the caller works through one
+ * batch, the next one is already being decoded on the executor.
+ */
+public class RecordCursor implements AutoCloseable {
+
+    static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final DatabaseReader reader;
+    private final Executor executor;
+    private final int end;
+    private int nextKey;
+
+    // front is handed out to the caller, back is being filled by the pending prefetch
+    private String[] front;
+    private String[] back;
+    private int frontPos;
+    private int frontCount;
+    private CompletableFuture<Integer> pending;
+    private boolean closed;
+
+    RecordCursor(DatabaseReader reader, int start, int end, int batchSize, Executor executor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.reader = reader;
+        this.executor = executor;
+        this.end = end;
+        this.nextKey = start;
+        this.front = new String[batchSize];
+        this.back = new String[batchSize];
+        this.pending = prefetch(back);
+    }
+
+    // Copies up to out.length records into out, returns how many were copied (0 once the range is exhausted)
+    public int nextRecords(String[] out) {
+        if (closed) {
+            throw new IllegalStateException("Cursor is closed");
+        }
+        if (frontPos == frontCount) {
+            try {
+                frontCount = pending.join();
+            } catch (CompletionException e) {
+                // e.g. the reader was closed while this batch was being read
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+            frontPos = 0;
+            String[] filled = back;
+            back = front;
+            front = filled;
+            if (frontCount == 0) {
+                return 0;
+            }
+            pending = prefetch(back);
+        }
+        int count = java.lang.Math.min(out.length, frontCount - frontPos);
+        System.arraycopy(front, frontPos, out, 0, count);
+        frontPos += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pending.cancel(false);
+    }
+
+    private CompletableFuture<Integer> prefetch(String[] batch) {
+        int from = nextKey;
+        int count = java.lang.Math.min(batch.length, end - from);
+        nextKey += count;
+        if (count <= 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            for (int i = 0; i < count; i++) {
+                batch[i] = reader.getRecord(from + i);
+            }
+            return count;
+        }, executor);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.chapter_05;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Emitted by DatabaseReader.getRecord; off unless a recording enables it, e.g. with oottp.jfc
+@Name("com.example.RecordRead")
+@Label("Record Read")
+@Category({ "Object-Oriented Thought Process", "Database" })
+@Enabled(false)
+@StackTrace(false)
+class RecordReadEvent extends Event {
+
+    @Label("Key")
+    int key;
+
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    @Label("Served From Mapping")
+    @Description("True when the record was read in place from one mapped page, false when it straddled pages and was copied")
+    boolean mapped;
+}
@@ -0,0 +1,71 @@
+package com.example.chapter_05;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/*
+ * Spliterator over a key range of a DatabaseReader. Bulk traversal goes
+ * through a RecordCursor so the next batch is read ahead.
+ */
+class RecordSpliterator implements Spliterator<String> {
+
+    private final DatabaseReader reader;
+    private final int batchSize;
+    private int from;
+    private final int to;
+
+    RecordSpliterator(DatabaseReader reader, int from, int to, int batchSize) {
+        this.reader = reader;
+        this.from = from;
+        this.to = to;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(reader.getRecord(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (from >= to) {
+            return;
+        }
+        String[] batch = new String[batchSize];
+        try (RecordCursor cursor = new RecordCursor(reader, from, to, batchSize, ForkJoinPool.commonPool())) {
+            int count;
+            while ((count = cursor.nextRecords(batch)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    action.accept(batch[i]);
+                }
+            }
+        }
+        from = to;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        int mid = (from + to) >>> 1;
+        if (mid - from < batchSize) {
+            return null;
+        }
+        Spliterator<String> prefix = new RecordSpliterator(reader, from, mid, batchSize);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.chapter_05;
+
+// The shadow effect of DrawWithEffects as a pipeline stage
+public class ShadowStage implements DrawStage {
+
+    @Override
+    public void apply(DrawCommand command, StringBuilder frame) {
+        if (command == DrawCommand.DRAW) {
+            frame.append("Drawing with shadow effect...\n");
+        } else {
+            frame.append("Drawing with shadow effect on specific device...\n");
+        }
+    }
+
+}
@@ -1,13 +1,14 @@
 package com.example.chapter_05;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.file.Path;
 
 public class WriteFile {
 
     public static void main(String[] args) throws IOException {
-        Writer writeFile = new FileWriter("log.txt");
+        // Buffered, channel-backed writer that rolls log.txt over at 10MB
+        Writer writeFile = new ChannelLogWriter(Path.of("log.txt"), 10 * 1024 * 1024);
         Logger logger = new Logger(writeFile);
         logger.log("Hello World!");
         writeFile.close();
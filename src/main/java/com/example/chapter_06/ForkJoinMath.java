@@ -0,0 +1,147 @@
+package com.example.chapter_06;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Fork-join front end for SomeMath. A batch of inputs is split in halves
+ * until it is below the batch cutoff, and a single huge Fibonacci number
+ * forks the independent squarings of each fast-doubling step once the
+ * operands grow past the multiply cutoff. Idle workers steal the forked halves.
+ */
+public class ForkJoinMath implements AutoCloseable {
+
+    static final int DEFAULT_BATCH_CUTOFF = 64;
+    // Below this many bits a BigInteger product is cheaper than forking a task for it
+    static final int DEFAULT_MULTIPLY_CUTOFF_BITS = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int batchCutoff;
+    private final int multiplyCutoffBits;
+
+    public ForkJoinMath() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_CUTOFF, DEFAULT_MULTIPLY_CUTOFF_BITS);
+    }
+
+    public ForkJoinMath(int parallelism, int batchCutoff, int multiplyCutoffBits) {
+        if (batchCutoff <= 0) {
+            throw new IllegalArgumentException("batchCutoff must be positive: " + batchCutoff);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.batchCutoff = batchCutoff;
+        this.multiplyCutoffBits = multiplyCutoffBits;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getBatchCutoff() {
+        return batchCutoff;
+    }
+
+    public int getMultiplyCutoffBits() {
+        return multiplyCutoffBits;
+    }
+
+    // fib for every input, in the same order
+    public BigInteger[] fibAll(int[] ns) {
+        BigInteger[] results = new BigInteger[ns.length];
+        pool.invoke(new BatchTask(ns, results, 0, ns.length));
+        return results;
+    }
+
+    public BigInteger fib(int n) {
+        if (n <= SomeMath.MAX_LONG_FIB) {
+            return SomeMath.fibBig(n);
+        }
+        return pool.invoke(new FastDoublingTask(n));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class BatchTask extends RecursiveAction {
+
+        private final int[] ns;
+        private final BigInteger[] results;
+        private final int from;
+        private final int to;
+
+        BatchTask(int[] ns, BigInteger[] results, int from, int to) {
+            this.ns = ns;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchCutoff) {
+                for (int i = from; i < to; i++) {
+                    results[i] = SomeMath.fibBig(ns[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(ns, results, from, mid), new BatchTask(ns, results, mid, to));
+        }
+    }
+
+    // Same recurrence as SomeMath.fastDoubling, with the two squarings forked when they are big enough
+    private class FastDoublingTask extends RecursiveTask<BigInteger> {
+
+        private final int n;
+
+        FastDoublingTask(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            BigInteger a = BigInteger.ZERO;
+            BigInteger b = BigInteger.ONE;
+            for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+                BigInteger even;
+                BigInteger odd;
+                if (b.bitLength() < multiplyCutoffBits) {
+                    even = a.multiply(b.shiftLeft(1).subtract(a));
+                    odd = a.multiply(a).add(b.multiply(b));
+                } else {
+                    Square aSquared = new Square(a);
+                    Square bSquared = new Square(b);
+                    aSquared.fork();
+                    bSquared.fork();
+                    even = a.multiply(b.shiftLeft(1).subtract(a));
+                    odd = bSquared.join().add(aSquared.join());
+                }
+                if ((n & bit) == 0) {
+                    a = even;
+                    b = odd;
+                } else {
+                    a = odd;
+                    b = even.add(odd);
+                }
+            }
+            return a;
+        }
+    }
+
+    private static class Square extends RecursiveTask<BigInteger> {
+
+        private final BigInteger value;
+
+        Square(BigInteger value) {
+            this.value = value;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            return value.multiply(value);
+        }
+    }
+}
@@ -1,16 +1,104 @@
 package com.example.chapter_06;
 
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class SomeMath {
+
+    // F(92) is the largest Fibonacci number that fits in a long
+    static final int MAX_LONG_FIB = 92;
+    static final int MEMO_CAPACITY = 1024;
+
+    private static final long[] LONG_FIBS = new long[MAX_LONG_FIB + 1];
+
+    // Shared LRU of BigInteger results beyond the long range, bounded so it cannot grow without limit
+    private static final Map<Integer, BigInteger> BIG_FIBS = Collections.synchronizedMap(
+            new LinkedHashMap<Integer, BigInteger>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, BigInteger> eldest) {
+                    return size() > MEMO_CAPACITY;
+                }
+            });
+
+    static {
+        LONG_FIBS[1] = 1;
+        for (int i = 2; i <= MAX_LONG_FIB; i++) {
+            LONG_FIBS[i] = LONG_FIBS[i - 1] + LONG_FIBS[i - 2];
+        }
+    }
+
     public int add(int a, int b) {
         return a + b;
     }
 
+    // Throws ArithmeticException once the result no longer fits in an int (n > 46)
     public static int fib(int n) {
-        System.out.println(n);
-        if (n < 2) {
-            return n;
-        } else {
-            return fib(n - 1) + fib(n - 2);
+        return Math.toIntExact(fibLong(n));
+    }
+
+    // O(1): every value up to F(92) is precomputed
+    public static long fibLong(int n) {
+        checkNonNegative(n);
+        if (n > MAX_LONG_FIB) {
+            throw new ArithmeticException("fib(" + n + ") overflows a long, use fibBig");
+        }
+        return LONG_FIBS[n];
+    }
+
+    // O(n) time, O(1) space
+    public static long fibIterative(int n) {
+        checkNonNegative(n);
+        if (n > MAX_LONG_FIB) {
+            throw new ArithmeticException("fib(" + n + ") overflows a long, use fibBig");
+        }
+        long previous = 0;
+        long current = n == 0 ? 0 : 1;
+        for (int i = 2; i <= n; i++) {
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return current;
+    }
+
+    // O(log n) multiplications by fast doubling, memoized in a bounded shared cache
+    public static BigInteger fibBig(int n) {
+        checkNonNegative(n);
+        if (n <= MAX_LONG_FIB) {
+            return BigInteger.valueOf(LONG_FIBS[n]);
+        }
+        BigInteger cached = BIG_FIBS.get(n);
+        if (cached != null) {
+            return cached;
+        }
+        BigInteger result = fastDoubling(n);
+        BIG_FIBS.put(n, result);
+        return result;
+    }
+
+    // Walks the bits of n from the top: F(2k) = F(k)(2F(k+1) - F(k)), F(2k+1) = F(k)^2 + F(k+1)^2
+    static BigInteger fastDoubling(int n) {
+        BigInteger a = BigInteger.ZERO; // F(k)
+        BigInteger b = BigInteger.ONE;  // F(k+1)
+        for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+            BigInteger even = a.multiply(b.shiftLeft(1).subtract(a));
+            BigInteger odd = a.multiply(a).add(b.multiply(b));
+            if ((n & bit) == 0) {
+                a = even;
+                b = odd;
+            } else {
+                a = odd;
+                b = even.add(odd);
+            }
+        }
+        return a;
+    }
+
+    private static void checkNonNegative(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
         }
     }
 }
@@ -11,9 +11,9 @@ public class TestMath {
         x = math.add(1, 2);
         System.out.println("x = " + x);
 
-        int y = 53;
+        long y = SomeMath.fibLong(53);
+        System.out.println("y = " + y);
 
-        // y = math.fib(y);
-        // System.out.println("y = " + y);
+        System.out.println("fib(200) = " + SomeMath.fibBig(200));
     }
 }
@@ -2,9 +2,15 @@ package com.example.chapter_08.abstract_classes;
 
 public class Circle extends Shape {
 
+    private final double radius;
+
     public Circle(String color) {
-        super(color);
+        this(color, 0, 0, 0);
+    }
 
+    public Circle(String color, double x, double y, double radius) {
+        super(color, x, y);
+        this.radius = radius;
     }
 
     @Override
@@ -12,4 +18,27 @@ public class Circle extends Shape {
         return "Drawing a circle";
     }
 
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public double getHalfExtent() {
+        return radius;
+    }
+
+    @Override
+    public boolean contains(double px, double py) {
+        double dx = px - getX();
+        double dy = py - getY();
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    @Override
+    public double distanceTo(double px, double py) {
+        double dx = px - getX();
+        double dy = py - getY();
+        return Math.max(0, Math.sqrt(dx * dx + dy * dy) - radius);
+    }
+
 }
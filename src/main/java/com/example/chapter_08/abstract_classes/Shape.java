@@ -3,12 +3,38 @@ package com.example.chapter_08.abstract_classes;
 public abstract class Shape {
     public String color;
 
+    // Centre of the shape
+    private final double x;
+    private final double y;
+
     public Shape(String color) {
+        this(color, 0, 0);
+    }
+
+    public Shape(String color, double x, double y) {
         this.color = color;
+        this.x = x;
+        this.y = y;
     }
 
     public abstract String draw();
 
+    // Half the side of the axis-aligned box around the shape
+    public abstract double getHalfExtent();
+
+    public abstract boolean contains(double px, double py);
+
+    // Distance from the point to the closest part of the shape, 0 when the point is inside
+    public abstract double distanceTo(double px, double py);
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
     public void showColor() {
         System.err.println("The color of the shape is: " + color);
     }
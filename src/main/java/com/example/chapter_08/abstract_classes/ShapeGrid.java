@@ -0,0 +1,234 @@
+package com.example.chapter_08.abstract_classes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Uniform grid over a fixed set of shapes, built in one bulk load.
+ * Every cell lists the shapes whose bounding box overlaps it, packed into a
+ * single array with per-cell start offsets, so queries only look at the
+ * cells they touch. The grid is never modified after construction, which
+ * makes concurrent queries safe.
+ */
+public class ShapeGrid {
+
+    static final long MAX_CELLS = 1L << 26;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int size;
+
+    // Shapes of cell c are cellShapes[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final Shape[] cellShapes;
+
+    // Picks a cell size that puts roughly one shape in each cell
+    public ShapeGrid(Collection<? extends Shape> shapes) {
+        this(shapes, suggestCellSize(shapes));
+    }
+
+    public ShapeGrid(Collection<? extends Shape> shapes, double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        double lowX = Double.POSITIVE_INFINITY;
+        double lowY = Double.POSITIVE_INFINITY;
+        double highX = Double.NEGATIVE_INFINITY;
+        double highY = Double.NEGATIVE_INFINITY;
+        for (Shape shape : shapes) {
+            double half = shape.getHalfExtent();
+            lowX = Math.min(lowX, shape.getX() - half);
+            lowY = Math.min(lowY, shape.getY() - half);
+            highX = Math.max(highX, shape.getX() + half);
+            highY = Math.max(highY, shape.getY() + half);
+        }
+        if (shapes.isEmpty()) {
+            lowX = lowY = highX = highY = 0;
+        }
+
+        this.minX = lowX;
+        this.minY = lowY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil((highX - lowX) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((highY - lowY) / cellSize));
+        this.size = shapes.size();
+        if ((long) columns * rows > MAX_CELLS) {
+            throw new IllegalArgumentException("cellSize " + cellSize + " would need " + (long) columns * rows + " cells");
+        }
+
+        // Counting pass, then a prefix sum turns counts into start offsets
+        int[] starts = new int[columns * rows + 1];
+        for (Shape shape : shapes) {
+            double half = shape.getHalfExtent();
+            int c0 = column(shape.getX() - half);
+            int c1 = column(shape.getX() + half);
+            int r0 = row(shape.getY() - half);
+            int r1 = row(shape.getY() + half);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    starts[r * columns + c + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+
+        Shape[] packed = new Shape[starts[starts.length - 1]];
+        int[] fill = starts.clone();
+        for (Shape shape : shapes) {
+            double half = shape.getHalfExtent();
+            int c0 = column(shape.getX() - half);
+            int c1 = column(shape.getX() + half);
+            int r0 = row(shape.getY() - half);
+            int r1 = row(shape.getY() + half);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    packed[fill[r * columns + c]++] = shape;
+                }
+            }
+        }
+        this.cellStart = starts;
+        this.cellShapes = packed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Every shape whose bounding box overlaps the rectangle, each reported once
+    public List<Shape> query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY) {
+        List<Shape> result = new ArrayList<>();
+        int c0 = column(queryMinX);
+        int c1 = column(queryMaxX);
+        int r0 = row(queryMinY);
+        int r1 = row(queryMaxY);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    Shape shape = cellShapes[i];
+                    double half = shape.getHalfExtent();
+                    double shapeMinX = shape.getX() - half;
+                    double shapeMinY = shape.getY() - half;
+                    if (shapeMinX > queryMaxX || shape.getX() + half < queryMinX
+                            || shapeMinY > queryMaxY || shape.getY() + half < queryMinY) {
+                        continue;
+                    }
+                    // A shape spanning several visited cells is only reported from the first of them
+                    if (c == Math.max(column(shapeMinX), c0) && r == Math.max(row(shapeMinY), r0)) {
+                        result.add(shape);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // Hit test: every shape that contains the point
+    public List<Shape> at(double px, double py) {
+        List<Shape> result = new ArrayList<>();
+        if (px < minX || py < minY || px > minX + columns * cellSize || py > minY + rows * cellSize) {
+            return result;
+        }
+        int cell = row(py) * columns + column(px);
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            if (cellShapes[i].contains(px, py)) {
+                result.add(cellShapes[i]);
+            }
+        }
+        return result;
+    }
+
+    // The shape closest to the point, or null when the grid is empty
+    public Shape nearest(double px, double py) {
+        if (size == 0) {
+            return null;
+        }
+        int pc = column(px);
+        int pr = row(py);
+        int maxRing = Math.max(Math.max(pc, columns - 1 - pc), Math.max(pr, rows - 1 - pr));
+        Shape best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Shapes in this ring that were not seen in inner rings lie outside the inner block of cells
+            if (best != null && bestDistance <= distanceOutsideBlock(px, py, pc, pr, ring)) {
+                break;
+            }
+            for (int r = pr - ring; r <= pr + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean edgeRow = r == pr - ring || r == pr + ring;
+                for (int c = pc - ring; c <= pc + ring; c += edgeRow ? 1 : 2 * ring) {
+                    if (c >= 0 && c < columns) {
+                        int cell = r * columns + c;
+                        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                            double distance = cellShapes[i].distanceTo(px, py);
+                            if (distance < bestDistance) {
+                                bestDistance = distance;
+                                best = cellShapes[i];
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Lower bound on the distance from the point to anything outside the block of cells within ring - 1 of (pc, pr)
+    private double distanceOutsideBlock(double px, double py, int pc, int pr, int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        double blockMinX = minX + (pc - ring + 1) * cellSize;
+        double blockMaxX = minX + (pc + ring) * cellSize;
+        double blockMinY = minY + (pr - ring + 1) * cellSize;
+        double blockMaxY = minY + (pr + ring) * cellSize;
+        if (px < blockMinX || px > blockMaxX || py < blockMinY || py > blockMaxY) {
+            return 0;
+        }
+        return Math.min(Math.min(px - blockMinX, blockMaxX - px), Math.min(py - blockMinY, blockMaxY - py));
+    }
+
+    private int column(double x) {
+        int c = (int) Math.floor((x - minX) / cellSize);
+        return Math.min(Math.max(c, 0), columns - 1);
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor((y - minY) / cellSize);
+        return Math.min(Math.max(r, 0), rows - 1);
+    }
+
+    private static double suggestCellSize(Collection<? extends Shape> shapes) {
+        if (shapes.isEmpty()) {
+            return 1;
+        }
+        double lowX = Double.POSITIVE_INFINITY;
+        double lowY = Double.POSITIVE_INFINITY;
+        double highX = Double.NEGATIVE_INFINITY;
+        double highY = Double.NEGATIVE_INFINITY;
+        double extent = 0;
+        for (Shape shape : shapes) {
+            lowX = Math.min(lowX, shape.getX());
+            lowY = Math.min(lowY, shape.getY());
+            highX = Math.max(highX, shape.getX());
+            highY = Math.max(highY, shape.getY());
+            extent += shape.getHalfExtent() * 2;
+        }
+        double spacing = Math.sqrt((highX - lowX) * (highY - lowY) / shapes.size());
+        double span = Math.max(highX - lowX, highY - lowY) / shapes.size();
+        double cellSize = Math.max(Math.max(spacing, span), extent / shapes.size());
+        return cellSize > 0 ? cellSize : 1;
+    }
+}
@@ -2,12 +2,42 @@ package com.example.chapter_08.abstract_classes;
 
 public class Square extends Shape {
 
+    private final double side;
+
     public Square(String color) {
-        super(color);
+        this(color, 0, 0, 0);
+    }
+
+    public Square(String color, double x, double y, double side) {
+        super(color, x, y);
+        this.side = side;
     }
 
     @Override
     public String draw() {
         return "drawing a square";
     }
+
+    public double getSide() {
+        return side;
+    }
+
+    @Override
+    public double getHalfExtent() {
+        return side / 2;
+    }
+
+    @Override
+    public boolean contains(double px, double py) {
+        double half = side / 2;
+        return Math.abs(px - getX()) <= half && Math.abs(py - getY()) <= half;
+    }
+
+    @Override
+    public double distanceTo(double px, double py) {
+        double half = side / 2;
+        double dx = Math.max(0, Math.abs(px - getX()) - half);
+        double dy = Math.max(0, Math.abs(py - getY()) - half);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
 }
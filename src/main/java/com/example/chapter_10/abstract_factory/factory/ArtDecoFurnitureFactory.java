@@ -7,21 +7,29 @@ import com.example.chapter_10.abstract_factory.cofee_table.ArtDecoCofeeTable;
 import com.example.chapter_10.abstract_factory.cofee_table.CofeeTable;
 import com.example.chapter_10.abstract_factory.sofa.ArtDecoSofa;
 import com.example.chapter_10.abstract_factory.sofa.Sofa;
+import com.example.metrics.Counter;
+import com.example.metrics.MetricsRegistry;
 
 public class ArtDecoFurnitureFactory implements FurnitureFactory
 {
+
+    private static final Counter CREATED = MetricsRegistry.getDefault().counter("art_deco_furniture_created_total");
+
     @Override
     public Chair createChair() {
+        CREATED.increment();
         return new ArtDecoChair();
     }
 
     @Override
     public Sofa createSofa() {
+        CREATED.increment();
         return new ArtDecoSofa();
     }
 
     @Override
     public CofeeTable createCofeeTable() {
+        CREATED.increment();
         return new ArtDecoCofeeTable();
     }
 }
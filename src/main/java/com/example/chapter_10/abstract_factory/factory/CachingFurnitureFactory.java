@@ -0,0 +1,72 @@
+package com.example.chapter_10.abstract_factory.factory;
+
+import com.example.chapter_10.abstract_factory.FurnitureFactory;
+import com.example.chapter_10.abstract_factory.chair.Chair;
+import com.example.chapter_10.abstract_factory.cofee_table.CofeeTable;
+import com.example.chapter_10.abstract_factory.sofa.Sofa;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Flyweight wrapper around a FurnitureFactory whose products carry no state,
+ * like the ones in this package. Each product is created once up front and
+ * the same instance is handed out on every call.
+ */
+public class CachingFurnitureFactory implements FurnitureFactory {
+
+    // Every caching factory, summed by the gauge; weak so an abandoned factory can still be collected
+    private static final Set<CachingFurnitureFactory> FACTORIES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        MetricsRegistry.getDefault().gauge("caching_furniture_factory_requests", () -> {
+            long sum = 0;
+            synchronized (FACTORIES) {
+                for (CachingFurnitureFactory factory : FACTORIES) {
+                    sum += factory.getRequestCount();
+                }
+            }
+            return sum;
+        });
+    }
+
+    private final Chair chair;
+    private final Sofa sofa;
+    private final CofeeTable cofeeTable;
+
+    private final LongAdder requests = new LongAdder();
+
+    public CachingFurnitureFactory(FurnitureFactory factory) {
+        chair = factory.createChair();
+        sofa = factory.createSofa();
+        cofeeTable = factory.createCofeeTable();
+        FACTORIES.add(this);
+    }
+
+    @Override
+    public Chair createChair() {
+        requests.increment();
+        return chair;
+    }
+
+    @Override
+    public Sofa createSofa() {
+        requests.increment();
+        return sofa;
+    }
+
+    @Override
+    public CofeeTable createCofeeTable() {
+        requests.increment();
+        return cofeeTable;
+    }
+
+    // Every request is served without allocating; only the three shared instances ever exist
+    public long getRequestCount() {
+        return requests.sum();
+    }
+}
@@ -7,20 +7,28 @@ import com.example.chapter_10.abstract_factory.cofee_table.CofeeTable;
 import com.example.chapter_10.abstract_factory.cofee_table.ModernCofeeTable;
 import com.example.chapter_10.abstract_factory.sofa.ModernSofa;
 import com.example.chapter_10.abstract_factory.sofa.Sofa;
+import com.example.metrics.Counter;
+import com.example.metrics.MetricsRegistry;
 
 public class ModernFurnitureFactory implements FurnitureFactory {
+
+    private static final Counter CREATED = MetricsRegistry.getDefault().counter("modern_furniture_created_total");
+
     @Override
     public Chair createChair() {
+        CREATED.increment();
         return new ModernChair();
     }
 
     @Override
     public Sofa createSofa() {
+        CREATED.increment();
         return new ModernSofa();
     }
 
     @Override
     public CofeeTable createCofeeTable() {
+        CREATED.increment();
         return new ModernCofeeTable();
     }
 }
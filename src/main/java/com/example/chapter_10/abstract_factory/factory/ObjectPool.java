@@ -0,0 +1,104 @@
+package com.example.chapter_10.abstract_factory.factory;
+
+import com.example.metrics.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/*
+ * Bounded pool for products that do carry state. Released objects are reset
+ * and kept for the next borrow; when the pool is empty a new one is created,
+ * and when it is full a released object is simply left to the garbage collector.
+ * The pool tracks which objects are out, by identity, so releasing one twice
+ * or releasing one it never handed out fails instead of letting two borrowers
+ * share the same instance.
+ */
+public class ObjectPool<T> {
+
+    // Every pool, summed by the gauges; weak so an abandoned pool can still be collected
+    private static final Set<ObjectPool<?>> POOLS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        MetricsRegistry.getDefault().gauge("object_pool_allocations", () -> sumOverPools(ObjectPool::getAllocationCount));
+        MetricsRegistry.getDefault().gauge("object_pool_reuses", () -> sumOverPools(ObjectPool::getReuseCount));
+        MetricsRegistry.getDefault().gauge("object_pool_idle", () -> sumOverPools(ObjectPool::getIdleCount));
+        MetricsRegistry.getDefault().gauge("object_pool_allocations_per_second", () -> sumOverPools(pool -> Math.round(pool.getAllocationRate())));
+    }
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> reset;
+    private final ArrayBlockingQueue<T> idle;
+    private final Set<T> borrowed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final long createdAt = System.nanoTime();
+
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset, int maxIdle) {
+        this.factory = factory;
+        this.reset = reset;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+        POOLS.add(this);
+    }
+
+    public T borrow() {
+        T object = idle.poll();
+        if (object != null) {
+            reuses.increment();
+        } else {
+            allocations.increment();
+            object = factory.get();
+        }
+        borrowed.add(object);
+        return object;
+    }
+
+    // Throws IllegalArgumentException if the object is not currently borrowed from this pool
+    public void release(T object) {
+        // Removing first means only one of two racing releases of the same object gets past here
+        if (!borrowed.remove(object)) {
+            throw new IllegalArgumentException("Object was not borrowed from this pool or was already released");
+        }
+        reset.accept(object);
+        idle.offer(object);
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    public int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    public long getReuseCount() {
+        return reuses.sum();
+    }
+
+    // New objects created per second since the pool was built
+    public double getAllocationRate() {
+        double seconds = (System.nanoTime() - createdAt) / 1e9;
+        return seconds > 0 ? allocations.sum() / seconds : 0;
+    }
+
+    private static long sumOverPools(ToLongFunction<ObjectPool<?>> value) {
+        long sum = 0;
+        synchronized (POOLS) {
+            for (ObjectPool<?> pool : POOLS) {
+                sum += value.applyAsLong(pool);
+            }
+        }
+        return sum;
+    }
+}
@@ -14,5 +14,11 @@ public class Something {
         Chair vic = chair();
 
         chair().hasLegs();
+
+        // The products carry no state, so one shared instance per product is enough
+        CachingFurnitureFactory victorian = new CachingFurnitureFactory(new VictorianFurnitureFactory());
+        victorian.createChair().hasLegs();
+        victorian.createChair().sitOn();
+        System.out.println(victorian.getRequestCount() + " chairs handed out without allocating");
     }
 }
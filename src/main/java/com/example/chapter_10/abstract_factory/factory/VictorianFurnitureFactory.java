@@ -7,20 +7,28 @@ import com.example.chapter_10.abstract_factory.cofee_table.CofeeTable;
 import com.example.chapter_10.abstract_factory.cofee_table.VictorianCofeeTable;
 import com.example.chapter_10.abstract_factory.sofa.Sofa;
 import com.example.chapter_10.abstract_factory.sofa.VictorianSofa;
+import com.example.metrics.Counter;
+import com.example.metrics.MetricsRegistry;
 
 public class VictorianFurnitureFactory implements FurnitureFactory {
+
+    private static final Counter CREATED = MetricsRegistry.getDefault().counter("victorian_furniture_created_total");
+
     @Override
     public Chair createChair() {
+        CREATED.increment();
         return new VictorianChair();
     }
 
     @Override
     public Sofa createSofa() {
+        CREATED.increment();
         return new VictorianSofa();
     }
 
     @Override
     public CofeeTable createCofeeTable() {
+        CREATED.increment();
         return new VictorianCofeeTable();
     }
 }
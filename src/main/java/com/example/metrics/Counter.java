@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// A monotonically increasing count, striped across cells so concurrent increments do not contend
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
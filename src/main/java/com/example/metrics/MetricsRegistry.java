@@ -0,0 +1,79 @@
+package com.example.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/*
+ * Named counters, latency histograms and gauges. Components look their
+ * metrics up once, usually into a static final field, and then record
+ * straight into them; the registry itself is only involved in lookups and
+ * when a snapshot is dumped.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final ConcurrentHashMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    // The registry the project's components record into
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name) {
+        return lookup(name, Counter.class, Counter::new);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return lookup(name, LatencyHistogram.class, LatencyHistogram::new);
+    }
+
+    // Registers (or replaces) a gauge read when a snapshot is taken
+    public void gauge(String name, LongSupplier value) {
+        metrics.compute(name, (key, previous) -> {
+            if (previous != null && !(previous instanceof LongSupplier)) {
+                throw new IllegalArgumentException(name + " is already registered as a " + previous.getClass().getSimpleName());
+            }
+            return value;
+        });
+    }
+
+    // Prometheus text exposition format, metrics sorted by name
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Object> entry : new TreeMap<>(metrics).entrySet()) {
+            String name = entry.getKey();
+            Object metric = entry.getValue();
+            if (metric instanceof Counter counter) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+                out.append(name).append(' ').append(counter.get()).append('\n');
+            } else if (metric instanceof LatencyHistogram histogram) {
+                out.append("# TYPE ").append(name).append(" summary\n");
+                for (double quantile : QUANTILES) {
+                    out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                            .append(histogram.valueAtQuantile(quantile)).append('\n');
+                }
+                out.append(name).append("_max ").append(histogram.getMax()).append('\n');
+                out.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+                out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+            } else if (metric instanceof LongSupplier gauge) {
+                out.append("# TYPE ").append(name).append(" gauge\n");
+                out.append(name).append(' ').append(gauge.getAsLong()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private <T> T lookup(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.computeIfAbsent(name, key -> factory.get());
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(name + " is already registered as a " + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+}
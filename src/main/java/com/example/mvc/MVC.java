@@ -1,7 +1,11 @@
 package com.example.mvc;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 public class MVC {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws InterruptedException {
 
 
     StudentController controller = new StudentController();
@@ -9,5 +13,17 @@ public class MVC {
     controller.updateView("Amalitech", "Amaliro");
 
     controller.updateView("Mr George", "0123456789");
+
+    // Only the name changed, so only the name is printed again
+    controller.updateView("Mr George Jr", "0123456789");
+
+    // Views notified on another thread; the burst of updates below is usually rendered once per view
+    ExecutorService notifier = Executors.newSingleThreadExecutor();
+    StudentController observed = new StudentController(notifier);
+    observed.addView(System.err);
+    observed.updateView("Ama", "1");
+    observed.updateView("Kofi", "2");
+    notifier.shutdown();
+    notifier.awaitTermination(1, TimeUnit.SECONDS);
   }
 }
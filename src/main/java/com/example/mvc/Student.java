@@ -1,8 +1,21 @@
 package com.example.mvc;
 
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 class Student {
-  private String rollNo;
-  private String name;
+  private static final StudentListener[] NO_LISTENERS = new StudentListener[0];
+  private static final AtomicIntegerFieldUpdater<Student> NOTIFICATION_PENDING =
+      AtomicIntegerFieldUpdater.newUpdater(Student.class, "notificationPending");
+
+  private volatile String rollNo;
+  private volatile String name;
+
+  // Listeners are notified on the notifier; changes made before a queued notification runs share it
+  private volatile StudentListener[] listeners = NO_LISTENERS;
+  private volatile Executor notifier = Runnable::run;
+  private volatile int notificationPending;
 
   public String getRollNo() {
     return rollNo;
@@ -10,6 +23,7 @@ class Student {
 
   public void setRollNo(String rollNo) {
     this.rollNo = rollNo;
+    changed();
   }
 
   public String getName() {
@@ -18,5 +32,47 @@ class Student {
 
   public void setName(String name) {
     this.name = name;
+    changed();
+  }
+
+  public synchronized void subscribe(StudentListener listener) {
+    StudentListener[] current = listeners;
+    StudentListener[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = listener;
+    listeners = updated;
+  }
+
+  public synchronized void unsubscribe(StudentListener listener) {
+    StudentListener[] current = listeners;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == listener) {
+        StudentListener[] updated = new StudentListener[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+        listeners = updated;
+        return;
+      }
+    }
+  }
+
+  public void setNotifier(Executor notifier) {
+    this.notifier = notifier;
+  }
+
+  private void changed() {
+    if (listeners.length == 0) {
+      return;
+    }
+    if (NOTIFICATION_PENDING.compareAndSet(this, 0, 1)) {
+      notifier.execute(this::notifyListeners);
+    }
+  }
+
+  private void notifyListeners() {
+    // Cleared before reading the state, so a change racing with this run schedules another one
+    notificationPending = 0;
+    for (StudentListener listener : listeners) {
+      listener.studentChanged(this);
+    }
   }
 }
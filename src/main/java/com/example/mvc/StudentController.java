@@ -1,12 +1,40 @@
 package com.example.mvc;
 
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
 class StudentController {
   private Student studentModel;
   private StudentView studentView; // our console in this case
+  // True when views are notified by the model instead of being printed here
+  private final boolean observing;
 
   public StudentController() {
     studentModel = new Student();
     studentView = new StudentView(studentModel);
+    observing = false;
+  }
+
+  // Views are told about changes on the notifier, so updateView returns without rendering anything
+  StudentController(Executor notifier) {
+    studentModel = new Student();
+    studentModel.setNotifier(notifier);
+    studentView = new StudentView(studentModel);
+    studentModel.subscribe(studentView);
+    observing = true;
+  }
+
+  // Drive an existing model, e.g. one of many held by a StudentServer
+  StudentController(Student studentModel) {
+    this.studentModel = studentModel;
+    this.studentView = new StudentView(studentModel);
+    this.observing = false;
+  }
+
+  // Another view of this controller's model, updated through model notifications
+  public void addView(PrintStream out) {
+    studentModel.subscribe(new StudentView(studentModel, out));
   }
 
   private void setStudentName(String name) {
@@ -26,8 +54,29 @@ class StudentController {
   }
 
   public void updateView(String name, String rollNo) {
+    StudentUpdateEvent event = new StudentUpdateEvent();
+    event.begin();
+    boolean unchanged = event.isEnabled()
+        && Objects.equals(name, studentModel.getName()) && Objects.equals(rollNo, studentModel.getRollNo());
     setStudentName(name);
     setStudentRollNo(rollNo);
-    studentView.printStudentDetails();
+    if (!observing) {
+      studentView.printStudentDetails();
+    }
+    if (event.shouldCommit()) {
+      event.rollNo = rollNo;
+      event.size = name == null ? 0 : name.length();
+      event.unchanged = unchanged;
+      event.commit();
+    }
+  }
+
+  public void updateModel(String name, String rollNo) {
+    setStudentName(name);
+    setStudentRollNo(rollNo);
+  }
+
+  public void renderView(StringBuilder out) {
+    studentView.render(out);
   }
 }
@@ -0,0 +1,5 @@
+package com.example.mvc;
+
+interface StudentListener {
+  void studentChanged(Student student);
+}
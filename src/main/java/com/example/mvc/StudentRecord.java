@@ -0,0 +1,13 @@
+package com.example.mvc;
+
+// An immutable snapshot of a student, as stored and handed out by StudentRepository
+record StudentRecord(String rollNo, String name) {
+
+  // A fresh model with this snapshot's values, for controllers and views to work on
+  Student toStudent() {
+    Student student = new Student();
+    student.setRollNo(rollNo);
+    student.setName(name);
+    return student;
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.mvc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*
+ * In-memory store of students with a hash index on roll number and a sorted
+ * index on name for exact and prefix lookups. Students are stored and handed
+ * out as immutable StudentRecords, and saving replaces the record, so readers
+ * use both indexes without taking a lock and no caller can change a stored
+ * student behind the indexes' back. Writers are serialized so the two
+ * indexes always agree.
+ */
+class StudentRepository {
+
+  // Separates name and roll number in sorted-index keys; sorts before any real character
+  private static final char KEY_SEPARATOR = '\u0000';
+
+  private final ConcurrentHashMap<String, StudentRecord> byRollNo = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<String, StudentRecord> byName = new ConcurrentSkipListMap<>();
+
+  public StudentRecord findByRollNo(String rollNo) {
+    return byRollNo.get(rollNo);
+  }
+
+  public List<StudentRecord> findByName(String name) {
+    return collect(nameOrEmpty(name) + KEY_SEPARATOR);
+  }
+
+  // Students whose name starts with the prefix, sorted by name then roll number
+  public List<StudentRecord> findByNamePrefix(String prefix) {
+    return collect(prefix);
+  }
+
+  public int size() {
+    return byRollNo.size();
+  }
+
+  // Creates the student or replaces its name; returns the stored instance
+  public synchronized StudentRecord save(String rollNo, String name) {
+    StudentRecord student = new StudentRecord(rollNo, name);
+    StudentRecord previous = byRollNo.put(rollNo, student);
+    if (previous != null) {
+      byName.remove(nameKey(previous));
+    }
+    byName.put(nameKey(student), student);
+    return student;
+  }
+
+  public synchronized boolean delete(String rollNo) {
+    StudentRecord previous = byRollNo.remove(rollNo);
+    if (previous == null) {
+      return false;
+    }
+    byName.remove(nameKey(previous));
+    return true;
+  }
+
+  // Loads "rollNo,name" lines; a header line starting with "rollNo" and blank lines are skipped
+  public synchronized int loadCsv(Path file) throws IOException {
+    int loaded = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int comma = line.indexOf(',');
+        if (line.isBlank() || comma < 0 || (loaded == 0 && line.startsWith("rollNo"))) {
+          continue;
+        }
+        save(line.substring(0, comma).trim(), line.substring(comma + 1).trim());
+        loaded++;
+      }
+    }
+    return loaded;
+  }
+
+  private List<StudentRecord> collect(String prefix) {
+    List<StudentRecord> result = new ArrayList<>();
+    for (Map.Entry<String, StudentRecord> entry : byName.tailMap(prefix).entrySet()) {
+      if (!entry.getKey().startsWith(prefix)) {
+        break;
+      }
+      result.add(entry.getValue());
+    }
+    return result;
+  }
+
+  private static String nameKey(StudentRecord student) {
+    return nameOrEmpty(student.name()) + KEY_SEPARATOR + student.rollNo();
+  }
+
+  private static String nameOrEmpty(String name) {
+    return name == null ? "" : name;
+  }
+}
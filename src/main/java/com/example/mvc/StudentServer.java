@@ -0,0 +1,160 @@
+package com.example.mvc;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * HTTP front end for the MVC example. Every request runs on its own virtual
+ * thread and gets its own controller over the model of the student it asks
+ * for. Students live in a StudentRepository as immutable records, so
+ * requests render a fresh model of their own without locking. Views are
+ * rendered and UTF-8 encoded into pooled buffers, so a response allocates no
+ * intermediate String or byte[]. The server listens on the loopback interface
+ * unless given another address: PUT is unauthenticated.
+ *
+ *   GET  /students/{rollNo}           the student's details
+ *   PUT  /students/{rollNo}  (name)   create or rename the student
+ */
+class StudentServer {
+
+  static final String PATH = "/students/";
+  static final int MAX_POOLED_BUFFERS = 1024;
+  static final int MAX_POOLED_CAPACITY = 16 * 1024;
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final StudentRepository students;
+  private final ConcurrentLinkedQueue<ResponseBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+  public StudentServer(int port) throws IOException {
+    this(port, new StudentRepository());
+  }
+
+  public StudentServer(int port, StudentRepository students) throws IOException {
+    this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), students);
+  }
+
+  // Binding anything but a loopback address exposes the unauthenticated PUT to the network
+  public StudentServer(InetSocketAddress address, StudentRepository students) throws IOException {
+    this.students = students;
+    server = HttpServer.create(address, 0);
+    server.createContext(PATH, this::handle);
+    server.setExecutor(executor);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.close();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      // getPath() is already percent-decoded; decoding again would turn '+' into a space and reject '%'
+      String rollNo = exchange.getRequestURI().getPath().substring(PATH.length());
+      if (rollNo.isEmpty()) {
+        send(exchange, 404, null);
+        return;
+      }
+      switch (exchange.getRequestMethod()) {
+        case "GET" -> {
+          StudentRecord student = students.findByRollNo(rollNo);
+          send(exchange, student == null ? 404 : 200, student);
+        }
+        case "PUT", "POST" -> {
+          String name = readBody(exchange.getRequestBody());
+          send(exchange, 200, students.save(rollNo, name));
+        }
+        default -> send(exchange, 405, null);
+      }
+    }
+  }
+
+  private void send(HttpExchange exchange, int status, StudentRecord student) throws IOException {
+    if (student == null) {
+      exchange.sendResponseHeaders(status, -1);
+      return;
+    }
+    ResponseBuffer buffer = borrowBuffer();
+    try {
+      new StudentController(student.toStudent()).renderView(buffer.text);
+      ByteBuffer body = buffer.encode();
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(status, body.remaining());
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+      }
+    } finally {
+      returnBuffer(buffer);
+    }
+  }
+
+  private ResponseBuffer borrowBuffer() {
+    ResponseBuffer buffer = buffers.poll();
+    return buffer != null ? buffer : new ResponseBuffer();
+  }
+
+  private void returnBuffer(ResponseBuffer buffer) {
+    // Oversized buffers are dropped so one huge response does not pin memory forever
+    if (buffer.text.capacity() <= MAX_POOLED_CAPACITY && buffers.size() < MAX_POOLED_BUFFERS) {
+      buffer.text.setLength(0);
+      buffers.offer(buffer);
+    }
+  }
+
+  // A response's text and its UTF-8 bytes, reused across requests
+  private static final class ResponseBuffer {
+
+    final StringBuilder text = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocate(1024);
+
+    // Encodes text straight from the builder; the result is valid until the next call
+    ByteBuffer encode() {
+      int maxBytes = (int) (text.length() * (double) encoder.maxBytesPerChar());
+      if (bytes.capacity() < maxBytes) {
+        bytes = ByteBuffer.allocate(maxBytes);
+      }
+      bytes.clear();
+      encoder.reset();
+      // Sized for the worst case above, so neither call can overflow
+      encoder.encode(CharBuffer.wrap(text), bytes, true);
+      encoder.flush(bytes);
+      return bytes.flip();
+    }
+  }
+
+  private static String readBody(InputStream in) throws IOException {
+    return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+    StudentServer server = new StudentServer(port);
+    server.start();
+    System.out.println("Serving students on http://localhost:" + server.getPort() + PATH);
+  }
+}
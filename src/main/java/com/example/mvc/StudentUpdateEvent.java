@@ -0,0 +1,28 @@
+package com.example.mvc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Emitted by StudentController.updateView; off unless a recording enables it, e.g. with oottp.jfc
+@Name("com.example.StudentUpdate")
+@Label("Student Update")
+@Category({ "Object-Oriented Thought Process", "MVC" })
+@Enabled(false)
+@StackTrace(false)
+class StudentUpdateEvent extends Event {
+
+  @Label("Roll No")
+  String rollNo;
+
+  @Label("Name Length")
+  int size;
+
+  @Label("Unchanged")
+  @Description("True when the update set the same values the model already had, so the view had nothing to redraw")
+  boolean unchanged;
+}
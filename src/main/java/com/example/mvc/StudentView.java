@@ -1,16 +1,63 @@
 package com.example.mvc;
 
-class StudentView {
+import java.io.PrintStream;
+import java.util.Objects;
+
+class StudentView implements StudentListener {
 
   private Student studentModel;
+  private final PrintStream out;
+
+  // What was last printed, used to skip fields that have not changed
+  private boolean printed;
+  private String printedName;
+  private String printedRollNo;
+  private final StringBuilder buffer = new StringBuilder(64);
 
   public StudentView(Student student) {
+    this(student, System.out);
+  }
+
+  StudentView(Student student, PrintStream out) {
     this.studentModel = student;
+    this.out = out;
+  }
+
+  // Prints only the fields that changed since the last call, in a single write; nothing if none did
+  public synchronized void printStudentDetails() {
+    String name = studentModel.getName();
+    String rollNo = studentModel.getRollNo();
+    boolean nameChanged = !printed || !Objects.equals(name, printedName);
+    boolean rollNoChanged = !printed || !Objects.equals(rollNo, printedRollNo);
+    if (!nameChanged && !rollNoChanged) {
+      return;
+    }
+
+    buffer.setLength(0);
+    buffer.append("Student:\n");
+    if (nameChanged) {
+      buffer.append("Name: ").append(name).append('\n');
+    }
+    if (rollNoChanged) {
+      buffer.append("Roll No: ").append(rollNo).append('\n');
+    }
+    out.append(buffer);
+    out.flush();
+
+    printed = true;
+    printedName = name;
+    printedRollNo = rollNo;
+  }
+
+  @Override
+  public void studentChanged(Student student) {
+    printStudentDetails();
   }
 
-  public void printStudentDetails() {
-    System.out.println("Student:");
-    System.out.println("Name: " + studentModel.getName());
-    System.out.println("Roll No: " + studentModel.getRollNo());
+  // The full details, written into a caller-supplied buffer
+  public void render(StringBuilder out) {
+    out.append("Student:\n")
+        .append("Name: ").append(studentModel.getName()).append('\n')
+        .append("Roll No: ").append(studentModel.getRollNo()).append('\n');
   }
 }
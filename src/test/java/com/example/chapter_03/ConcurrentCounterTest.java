@@ -0,0 +1,99 @@
+package com.example.chapter_03;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ConcurrentCounterTest {
+
+    @Test
+    public void sumNeverCountsAheadOfTheIncrementsMade() throws InterruptedException {
+        for (ConcurrentCounter.Mode mode : ConcurrentCounter.Mode.values()) {
+            ConcurrentCounter counter = new ConcurrentCounter(mode, 1000, 10);
+            AtomicLong reference = new AtomicLong();
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread[] writers = new Thread[4];
+            for (int t = 0; t < writers.length; t++) {
+                writers[t] = new Thread(() -> {
+                    while (!stop.get()) {
+                        // The reference always runs ahead of the counter
+                        reference.incrementAndGet();
+                        counter.increment();
+                    }
+                });
+                writers[t].start();
+            }
+
+            long deadline = System.nanoTime() + 500_000_000L;
+            while (System.nanoTime() < deadline) {
+                long sum = counter.sum();
+                long made = reference.get();
+                assertTrue(mode + ": sum " + sum + " > " + made + " increments", sum <= made);
+            }
+            stop.set(true);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertEquals(reference.get(), counter.sum());
+        }
+    }
+
+    @Test
+    public void batchOfAThreadThatExitedIsCounted() throws InterruptedException {
+        ConcurrentCounter counter = new ConcurrentCounter(ConcurrentCounter.Mode.STRIPED, 64, 60_000);
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                counter.increment();
+            }
+        });
+        worker.start();
+        worker.join();
+        assertEquals(0, counter.approximateSum());
+        assertEquals(5, counter.sum());
+        // Folded into the shared count once, not again on the next call
+        assertEquals(5, counter.approximateSum());
+        assertEquals(5, counter.sum());
+    }
+
+    @Test
+    public void newThreadFoldsInBatchesOfThreadsThatExited() throws InterruptedException {
+        ConcurrentCounter counter = new ConcurrentCounter(ConcurrentCounter.Mode.PRECISE, 64, 60_000);
+        for (int t = 0; t < 100; t++) {
+            Thread worker = new Thread(counter::increment);
+            worker.start();
+            worker.join();
+        }
+        // The last worker reaped the 99 before it, only its own batch is still held
+        assertEquals(99, counter.approximateSum());
+        assertEquals(100, counter.sum());
+    }
+
+    @Test(timeout = 5000)
+    public void idleBatchIsFlushedWithinTheInterval() throws InterruptedException {
+        ConcurrentCounter counter = new ConcurrentCounter(ConcurrentCounter.Mode.PRECISE, 64, 20);
+        CountDownLatch counted = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            counter.add(3);
+            counted.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        counted.await();
+        while (counter.approximateSum() != 3) {
+            Thread.sleep(5);
+        }
+        done.countDown();
+        worker.join();
+        assertEquals(3, counter.sum());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.chapter_04;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class CabDispatcherTest {
+
+    @Test
+    public void releasingAFreeCabDoesNotIndexItTwice() {
+        try (CabDispatcher dispatcher = new CabDispatcher(1.0, 1)) {
+            Cab cab = new Cab("A", 0.5, 0.5);
+            dispatcher.addCab(cab);
+            dispatcher.release(cab, 5.5, 5.5);
+            dispatcher.release(cab, 5.5, 5.5);
+            assertEquals(1, dispatcher.freeCabCount());
+
+            assertSame(cab, dispatcher.dispatch(5, 5));
+            assertEquals(0, dispatcher.freeCabCount());
+            assertNull(dispatcher.dispatch(5, 5));
+        }
+    }
+
+    @Test
+    public void movedCabIsOnlyFoundAtItsNewCell() {
+        try (CabDispatcher dispatcher = new CabDispatcher(1.0, 1, 2)) {
+            Cab cab = new Cab("A", 0.5, 0.5);
+            dispatcher.addCab(cab);
+            dispatcher.moveCab(cab, 100.5, 100.5);
+            assertNull(dispatcher.dispatch(0.5, 0.5));
+            assertSame(cab, dispatcher.dispatch(100, 100));
+        }
+    }
+
+    @Test
+    public void concurrentMovesDispatchesAndReleasesKeepTheIndexConsistent() throws InterruptedException {
+        int cabCount = 50;
+        try (CabDispatcher dispatcher = new CabDispatcher(1.0, 2, 32)) {
+            List<Cab> cabs = new ArrayList<>();
+            for (int i = 0; i < cabCount; i++) {
+                Cab cab = new Cab("cab-" + i, i % 10, i / 10);
+                cabs.add(cab);
+                dispatcher.addCab(cab);
+            }
+
+            AtomicBoolean stop = new AtomicBoolean();
+            AtomicBoolean handedOutFreeCab = new AtomicBoolean();
+            List<Thread> threads = new ArrayList<>();
+            // Movers report positions of every cab, busy or free
+            for (int t = 0; t < 2; t++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!stop.get()) {
+                        Cab cab = cabs.get(random.nextInt(cabCount));
+                        dispatcher.moveCab(cab, random.nextDouble(20), random.nextDouble(20));
+                        Thread.yield();
+                    }
+                }));
+            }
+            // Riders take a cab and release it again somewhere else, sometimes twice
+            for (int t = 0; t < 2; t++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!stop.get()) {
+                        Cab cab = dispatcher.dispatch(random.nextDouble(20), random.nextDouble(20));
+                        if (cab != null) {
+                            if (cab.isFree()) {
+                                handedOutFreeCab.set(true);
+                            }
+                            dispatcher.release(cab, random.nextDouble(20), random.nextDouble(20));
+                            if (random.nextInt(4) == 0) {
+                                dispatcher.release(cab, random.nextDouble(20), random.nextDouble(20));
+                            }
+                        }
+                        Thread.yield();
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            Thread.sleep(500);
+            stop.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertFalse("dispatch returned a cab that was still free", handedOutFreeCab.get());
+
+            // Every cab is free again, indexed once, and found from its own position
+            assertEquals(cabCount, dispatcher.freeCabCount());
+            Set<Cab> dispatched = new HashSet<>();
+            for (Cab cab : cabs) {
+                Cab found = dispatcher.dispatch(cab.getX(), cab.getY());
+                assertNotNull(found);
+                assertTrue(dispatched.add(found));
+            }
+            assertEquals(0, dispatcher.freeCabCount());
+            assertNull(dispatcher.dispatch(10, 10));
+        }
+    }
+}
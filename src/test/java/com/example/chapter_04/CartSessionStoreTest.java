@@ -0,0 +1,79 @@
+package com.example.chapter_04;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CartSessionStoreTest {
+
+    private static final int SLAB_SIZE = 4096;
+
+    @Test
+    public void pinnedCartKeepsChangesWhileOtherSessionsChurn() throws InterruptedException {
+        CartSessionStore store = new CartSessionStore(2, SLAB_SIZE);
+        store.put("pinned", new ShoppingCart(new String[] { "apple" }));
+        ShoppingCart pinned = store.pin("pinned");
+
+        Thread churn = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                store.put("session-" + i, new ShoppingCart(new String[] { "item-" + i }));
+                store.get("session-" + (i / 2));
+            }
+        });
+        churn.start();
+        for (int i = 0; i < 500; i++) {
+            pinned.addItem("pear");
+            Thread.yield();
+        }
+        churn.join();
+        store.unpin("pinned");
+
+        // Push the cart out to a slab and read it back
+        for (int i = 0; i < 10; i++) {
+            store.put("after-" + i, new ShoppingCart(new String[] { "plum" }));
+        }
+        ShoppingCart reloaded = store.get("pinned");
+        assertEquals(1, reloaded.getQuantity("apple"));
+        assertEquals(500, reloaded.getQuantity("pear"));
+    }
+
+    @Test
+    public void computeChangesSurviveParking() {
+        CartSessionStore store = new CartSessionStore(1, SLAB_SIZE);
+        store.put("a", new ShoppingCart(new String[0]));
+        for (int i = 0; i < 100; i++) {
+            store.compute("a", cart -> cart.addItem("fig"));
+            store.put("other-" + i, new ShoppingCart(new String[] { "kiwi" }));
+        }
+        assertEquals(100, store.get("a").getQuantity("fig"));
+        assertNull(store.compute("missing", cart -> cart));
+    }
+
+    @Test
+    public void offHeapBytesShrinkAfterMostParkedCartsAreRemoved() {
+        CartSessionStore store = new CartSessionStore(1, SLAB_SIZE);
+        int carts = 2000;
+        for (int i = 0; i < carts; i++) {
+            store.put("session-" + i, new ShoppingCart(new String[] { "item-" + i, "shared" }));
+        }
+        long before = store.offHeapBytes();
+        assertTrue("expected several slabs, got " + before, before >= 4L * SLAB_SIZE);
+
+        // Keep every 20th cart: each slab falls below a quarter full and gets compacted or freed
+        for (int i = 0; i < carts; i++) {
+            if (i % 20 != 0) {
+                store.remove("session-" + i);
+            }
+        }
+        long after = store.offHeapBytes();
+        assertTrue("off-heap bytes went from " + before + " to " + after, after <= before / 4);
+
+        for (int i = 0; i < carts; i += 20) {
+            ShoppingCart cart = store.get("session-" + i);
+            assertEquals(1, cart.getQuantity("item-" + i));
+            assertEquals(1, cart.getQuantity("shared"));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.chapter_05;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class AsyncLoggerTest {
+
+    @Test
+    public void closeWritesEverythingThroughAChannelWriter() throws IOException {
+        Path file = Files.createTempFile("async-logger", ".log");
+        try (ChannelLogWriter writer = new ChannelLogWriter(file, 1 << 20)) {
+            AsyncLogger logger = new AsyncLogger(writer);
+            for (int i = 0; i < 1000; i++) {
+                logger.log("line " + i);
+            }
+            logger.close();
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1000, lines.size());
+        assertEquals("line 999", lines.get(999));
+        Files.delete(file);
+    }
+
+    @Test(timeout = 5000)
+    public void blockedProducerFailsWhenTheWriterDies() throws InterruptedException {
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLogger logger = new AsyncLogger(broken, 4, 4, 100, AsyncLogger.OverflowPolicy.BLOCK);
+        AtomicReference<IOException> thrown = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    logger.log("message " + i);
+                }
+            } catch (IOException e) {
+                thrown.set(e);
+            }
+        });
+        producer.start();
+        producer.join();
+        assertEquals("disk full", thrown.get().getMessage());
+    }
+
+    @Test(timeout = 5000)
+    public void blockedProducerFailsWhenTheLoggerIsClosed() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Writer slow = new StringWriter() {
+            @Override
+            public void write(String str) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(str);
+            }
+        };
+        AsyncLogger logger = new AsyncLogger(slow, 2, 2, 100, AsyncLogger.OverflowPolicy.BLOCK);
+        logger.log("first");
+        writing.await();
+        AtomicReference<IOException> thrown = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    logger.log("blocked " + i);
+                }
+            } catch (IOException e) {
+                thrown.set(e);
+            }
+        });
+        producer.start();
+        Thread closer = new Thread(() -> {
+            try {
+                logger.close();
+            } catch (IOException e) {
+                fail(e.toString());
+            }
+        });
+        closer.start();
+        while (producer.isAlive() && thrown.get() == null) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        producer.join();
+        closer.join();
+        assertEquals("Logger is closed", thrown.get().getMessage());
+    }
+
+    @Test
+    public void everyAcceptedMessageIsWrittenWhenCloseRacesProducers() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            StringWriter out = new StringWriter();
+            AsyncLogger logger = new AsyncLogger(out, 1024, 64, 100, AsyncLogger.OverflowPolicy.BLOCK);
+            AtomicInteger accepted = new AtomicInteger();
+            Thread[] producers = new Thread[4];
+            for (int p = 0; p < producers.length; p++) {
+                producers[p] = new Thread(() -> {
+                    try {
+                        while (true) {
+                            logger.log("x");
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // Closed
+                    }
+                });
+                producers[p].start();
+            }
+            Thread.sleep(5);
+            logger.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            int written = out.toString().length() / 2;
+            assertEquals(accepted.get(), written);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void idleWriterWakesForNewMessagesAndFlushesThem() throws Exception {
+        StringWriter out = new StringWriter();
+        AsyncLogger logger = new AsyncLogger(out, 16, 512, 20, AsyncLogger.OverflowPolicy.BLOCK);
+        logger.log("first");
+        while (!out.toString().equals("first\n")) {
+            Thread.sleep(5);
+        }
+        // Long enough for the writer thread to have gone to sleep with nothing pending
+        Thread.sleep(200);
+        logger.log("second");
+        while (!out.toString().equals("first\nsecond\n")) {
+            Thread.sleep(5);
+        }
+        logger.close();
+    }
+
+    @Test
+    public void logAfterCloseThrows() throws IOException {
+        AsyncLogger logger = new AsyncLogger(new StringWriter());
+        logger.close();
+        try {
+            logger.log("late");
+            fail("Expected the closed logger to reject the message");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.chapter_05;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LogRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCapacityThatIsNotAPowerOfTwo() {
+        new LogRingBuffer(6);
+    }
+
+    @Test
+    public void offerFailsOnlyWhenFull() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("m" + i));
+        }
+        assertFalse(buffer.offer("overflow"));
+
+        String[] out = new String[1];
+        assertEquals(1, buffer.drainTo(out));
+        assertTrue(buffer.offer("m4"));
+    }
+
+    @Test
+    public void drainsInOfferOrderAcrossWrapAround() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        String[] out = new String[3];
+        for (int round = 0; round < 5; round++) {
+            buffer.offer("a" + round);
+            buffer.offer("b" + round);
+            buffer.offer("c" + round);
+            assertEquals(3, buffer.drainTo(out));
+            assertArrayEquals(new String[] { "a" + round, "b" + round, "c" + round }, out);
+        }
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.drainTo(out));
+    }
+
+    @Test
+    public void concurrentProducersDeliverEveryMessageOnce() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        LogRingBuffer buffer = new LogRingBuffer(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String prefix = p + ":";
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(prefix + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Messages from one producer must come out in the order that producer offered them
+        int[] next = new int[producers];
+        String[] out = new String[16];
+        int received = 0;
+        while (received < producers * perProducer) {
+            int count = buffer.drainTo(out);
+            for (int i = 0; i < count; i++) {
+                String message = out[i];
+                int colon = message.indexOf(':');
+                int producer = Integer.parseInt(message.substring(0, colon));
+                assertEquals(next[producer]++, Integer.parseInt(message.substring(colon + 1)));
+            }
+            received += count;
+            if (count == 0) {
+                Thread.yield();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}